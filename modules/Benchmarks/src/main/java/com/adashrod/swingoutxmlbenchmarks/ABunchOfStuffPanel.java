@@ -0,0 +1,16 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JPanel;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.ABunchOfStuff}
+ */
+@SwingOutContainer(template = "/benchmark/aBunchOfStuffPanel.xml")
+public class ABunchOfStuffPanel extends JPanel {
+    JPanel p1;
+    JPanel p2;
+    JPanel p3;
+    JPanel p4;
+}
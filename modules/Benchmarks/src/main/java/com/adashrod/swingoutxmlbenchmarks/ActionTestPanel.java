@@ -0,0 +1,35 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.AbstractAction;
+import javax.swing.Action;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.ActionTest}
+ */
+@SwingOutContainer(template = "/benchmark/actionTestPanel.xml")
+public class ActionTestPanel extends JPanel {
+    JButton button1;
+    JButton button2;
+    JButton button3;
+    JLabel hello;
+
+    private final Action buttonAction = new AbstractAction() {
+        {
+            putValue(Action.NAME, "click me");
+        }
+        public void actionPerformed(final ActionEvent e) {
+            hello.setVisible(!hello.isVisible());
+        }
+    };
+
+    private final ActionListener buttonListener = (final ActionEvent e) -> {
+        buttonAction.setEnabled(!buttonAction.isEnabled());
+    };
+}
@@ -0,0 +1,177 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.SwingOutXml;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Checks that the bytes SwingOutXml itself allocates per element during create() stay within the budgets in
+ * /benchmark/allocation-budgets.properties, so that allocations in the hot path (Pairs, regex matchers, String.format,
+ * exceptions, etc.) don't creep back in unnoticed. Each entry in that file maps a context class, or a generated
+ * template, to its budget in bytes per element.
+ *
+ * For each context class, create() is warmed up, then the bytes allocated on the calling thread during create() are
+ * measured with com.sun.management.ThreadMXBean. The allocations of the Swing constructors are measured separately by
+ * instantiating each class in the created component tree with its no-arg constructor, and subtracted, leaving the
+ * engine's own overhead. Components whose classes don't have an accessible no-arg constructor are counted as
+ * overhead. The fixed cost of a create() call, which doesn't depend on the number of elements (loading the template,
+ * instantiating the context, etc.), is measured with {@link EmptyPanel}, whose template only has a root element, and
+ * is subtracted too, so that it isn't spread over the few elements of the small templates. What's left is divided by
+ * the number of elements below the root. The median of several measurements is used.
+ *
+ * Entries named generated.depth[d].fanout[f] are measured with templates from {@link TemplateGenerator}: the per-element
+ * cost is the difference between the overheads of templates of depth d and d - 1 with fan-out f, divided by the
+ * difference in their numbers of elements, so fixed costs cancel out. These templates are large enough that the
+ * measurement is stable, and their budgets are the tightest.
+ *
+ * Exits with status 1 if any budget is exceeded. After an intentional change in allocations, run with -Dupdate=true
+ * a few times to print the measured values, and set the budgets with the headroom described in the budgets file.
+ */
+public class AllocationBudgetCheck {
+    private static final String budgetsFile = "/benchmark/allocation-budgets.properties";
+    private static final int warmups = 200;
+    private static final int measurements = 21;
+    private static final Pattern generatedPattern = Pattern.compile("^generated\\.depth(\\d+)\\.fanout(\\d+)$");
+
+    private static final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(final String[] args) throws Exception {
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.out.println("thread allocation measurement isn't supported by this JVM");
+            System.exit(1);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        final boolean update = Boolean.getBoolean("update");
+        final Properties budgets = loadBudgets();
+        final List<String> failures = new ArrayList<>();
+
+        final long fixedCost = overhead(EmptyPanel.class, null);
+        System.out.printf("fixed cost of create(): %d bytes%n", fixedCost);
+        System.out.printf("%-60s %10s %10s %10s%n", "context class", "elements", "bytes/elem", "budget");
+        for (final String name: new TreeSet<>(budgets.stringPropertyNames())) {
+            final long budget = Long.parseLong(budgets.getProperty(name).trim());
+            final Matcher generated = generatedPattern.matcher(name);
+            final long perElement;
+            final int elements;
+            if (generated.matches()) {
+                final int depth = Integer.parseInt(generated.group(1));
+                final int fanOut = Integer.parseInt(generated.group(2));
+                final TemplateGenerator.GeneratedTemplate small = new TemplateGenerator().depth(depth - 1).fanOut(fanOut).generate();
+                final TemplateGenerator.GeneratedTemplate large = new TemplateGenerator().depth(depth).fanOut(fanOut).generate();
+                elements = large.getElementCount();
+                perElement = Math.max(overhead(large.getContextClass(), large) - overhead(small.getContextClass(), small), 0) /
+                    (large.getElementCount() - small.getElementCount());
+            } else {
+                final Class<? extends Container> contextClass = Class.forName(name).asSubclass(Container.class);
+                final List<Component> components = new ArrayList<>();
+                collect(SwingOutXml.create(contextClass), components);
+                elements = components.size();
+                perElement = Math.max(overhead(contextClass, null) - fixedCost, 0) / Math.max(elements - 1, 1);
+            }
+            System.out.printf("%-60s %10d %10d %10d%n", name, elements, perElement, budget);
+            if (update) {
+                System.out.printf("%s=%d%n", name, perElement);
+            } else if (perElement > budget) {
+                failures.add(String.format("%s allocated %d bytes per element, over the budget of %d", name,
+                    perElement, budget));
+            }
+        }
+
+        for (final String failure: failures) {
+            System.out.println(failure);
+        }
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Measures the median number of bytes that create() allocates for a context class, minus the allocations of the
+     * constructors of the components it creates
+     * @param contextClass class to create
+     * @param generated    the generated template of contextClass, which is rewritten before each create() since its IDs
+     *                     can only be used once, or null
+     * @return bytes allocated by SwingOutXml
+     */
+    private static long overhead(final Class<? extends Container> contextClass, final TemplateGenerator.GeneratedTemplate generated)
+            throws Exception {
+        rewrite(generated);
+        final List<Component> components = new ArrayList<>();
+        collect(SwingOutXml.create(contextClass), components);
+        final int iterations = generated != null ? Math.max(warmups * 100 / generated.getElementCount(), 5) : warmups;
+        for (int i = 0; i < iterations; i++) {
+            rewrite(generated);
+            SwingOutXml.create(contextClass);
+            instantiateAll(components);
+        }
+        final long[] overheads = new long[measurements];
+        for (int i = 0; i < measurements; i++) {
+            rewrite(generated);
+            overheads[i] = allocatedBy(() -> { SwingOutXml.create(contextClass); })
+                - allocatedBy(() -> { instantiateAll(components); });
+        }
+        Arrays.sort(overheads);
+        return overheads[measurements / 2];
+    }
+
+    private static void rewrite(final TemplateGenerator.GeneratedTemplate generated) throws IOException {
+        if (generated != null) {
+            generated.rewrite();
+        }
+    }
+
+    private static Properties loadBudgets() throws IOException {
+        final Properties budgets = new Properties();
+        try (final InputStream inputStream = AllocationBudgetCheck.class.getResourceAsStream(budgetsFile)) {
+            if (inputStream == null) {
+                throw new IOException(String.format("%s not found", budgetsFile));
+            }
+            budgets.load(inputStream);
+        }
+        return budgets;
+    }
+
+    private static void collect(final Component component, final List<Component> components) {
+        components.add(component);
+        if (component instanceof Container) {
+            for (final Component child: ((Container) component).getComponents()) {
+                collect(child, components);
+            }
+        }
+    }
+
+    private static void instantiateAll(final List<Component> components) {
+        for (final Component component: components) {
+            try {
+                final Constructor<?> constructor = component.getClass().getDeclaredConstructor();
+                constructor.setAccessible(true);
+                constructor.newInstance();
+            } catch (final ReflectiveOperationException | RuntimeException ignored) {}
+        }
+    }
+
+    private static long allocatedBy(final Measured measured) throws Exception {
+        final long threadId = Thread.currentThread().getId();
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        measured.run();
+        return threads.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    @FunctionalInterface
+    private interface Measured {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,20 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.ListCellRenderer;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.CellRenderers}
+ */
+@SwingOutContainer(template = "/benchmark/cellRenderersPanel.xml")
+public class CellRenderersPanel extends JPanel {
+    JList<String> list;
+    DefaultListModel<String> listModel = new DefaultListModel<>();
+    @SuppressWarnings("unchecked")
+    ListCellRenderer<String> cellRenderer = (ListCellRenderer) new DefaultListCellRenderer();
+}
@@ -0,0 +1,20 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+import com.adashrod.swingoutxmlexamples.CoolListener;
+import com.adashrod.swingoutxmlexamples.FancyPanel;
+
+import javax.swing.JPanel;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.CustomComponent}
+ */
+@SwingOutContainer(template = "/benchmark/customComponentPanel.xml")
+public class CustomComponentPanel extends JPanel {
+    private FancyPanel fancyPanel1;
+    private final CoolListener myCoolListener = () -> {};
+
+    private final Object object = new Object() {
+        public final String cent = "Center";
+    };
+}
@@ -0,0 +1,26 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.DialogParent} and
+ * {@link com.adashrod.swingoutxmlexamples.DialogChild} combined
+ */
+@SwingOutContainer(template = "/benchmark/dialogPanel.xml")
+public class DialogPanel extends JPanel {
+    private JButton button;
+    private JLabel label;
+    private JLabel label1;
+    private JLabel label2;
+    private JLabel label3;
+
+    private final ActionListener buttonListener = (final ActionEvent e) -> {
+        label1.setVisible(!label1.isVisible());
+    };
+}
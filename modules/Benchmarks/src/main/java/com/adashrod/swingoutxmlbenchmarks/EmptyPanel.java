@@ -0,0 +1,12 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JPanel;
+
+/**
+ * A template with only a root element, for measuring the fixed cost of create() that doesn't depend on the number of
+ * elements, see {@link AllocationBudgetCheck}
+ */
+@SwingOutContainer(template = "/benchmark/emptyPanel.xml")
+public class EmptyPanel extends JPanel {}
@@ -0,0 +1,24 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTextArea;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.HelloWorld}
+ */
+@SwingOutContainer(template = "/benchmark/helloWorldPanel.xml")
+public class HelloWorldPanel extends JPanel {
+    JButton button;
+    JLabel hello;
+    JTextArea textArea;
+
+    private final ActionListener buttonListener = (final ActionEvent e) -> {
+        hello.setVisible(!hello.isVisible());
+    };
+}
@@ -0,0 +1,62 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.LayoutBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JPanel;
+import java.awt.Container;
+import java.awt.LayoutManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link LayoutBuilder#buildLayout(Collection, Map, String, Container, List)} with the layouts and
+ * constructor arguments used in the example templates. Each param is the layout attribute and the
+ * layout-constructor-args attribute separated by "|".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class LayoutBuilderBenchmarks {
+    private static final Collection<String> awtPackages = Arrays.asList("java.awt", "javax.swing");
+
+    @Param({"java.awt.FlowLayout|", "FlowLayout|FlowLayout.RIGHT, 10, 10", "GridLayout|3, 2",
+        "BoxLayout|{contentPane}, BoxLayout.Y_AXIS", "javax.swing.BoxLayout|{contentPane}, javax.swing.BoxLayout.X_AXIS"})
+    public String layout;
+
+    private String layoutName;
+    private List<String> constructorArgs;
+    private final Map<String, Container> idMap = new HashMap<>();
+    private final Container container = new JPanel();
+
+    @Setup
+    public void setup() {
+        final String[] parts = layout.split("\\|", -1);
+        layoutName = parts[0];
+        constructorArgs = parts[1].isEmpty() ? Collections.<String>emptyList() : new ArrayList<>(Arrays.asList(parts[1].split("\\s*,\\s*")));
+    }
+
+    @Benchmark
+    public LayoutManager buildLayout() throws Exception {
+        return LayoutBuilder.buildLayout(awtPackages, idMap, layoutName, container, constructorArgs);
+    }
+}
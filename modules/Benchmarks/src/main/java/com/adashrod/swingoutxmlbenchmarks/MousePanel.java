@@ -0,0 +1,24 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+
+/**
+ * Panel-rooted variant of {@link com.adashrod.swingoutxmlexamples.MouseExample}
+ */
+@SwingOutContainer(template = "/benchmark/mousePanel.xml")
+public class MousePanel extends JPanel {
+    private JPanel panel;
+    private JLabel label;
+
+    private final MouseListener mouseListener = new MouseAdapter() {
+        public void mouseEntered(final MouseEvent e) {
+            label.setText("on");
+        }
+    };
+}
@@ -0,0 +1,104 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.util.ReflectionUtils;
+import javafx.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.JPanel;
+import java.awt.Container;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ReflectionUtils#parseToken(Object, Map, Map, Collection, String)} for each kind of token, and
+ * {@link ReflectionUtils#getDeclaredConstructorPolymorphic(Class, Class[])} with 1 to 5 arguments whose types are
+ * subclasses of the formal parameter types
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ReflectionUtilsBenchmarks {
+    private static final Collection<String> awtPackages = Arrays.asList("java.awt", "javax.swing");
+
+    @State(Scope.Benchmark)
+    public static class TokenState {
+        @Param({"string", "keyword", "id", "int", "constant", "qualifiedConstant", "field"})
+        public String kind;
+
+        final Map<String, String> tokens = new HashMap<>();
+        final Map<String, Object> keywordMap = new HashMap<>();
+        final Map<String, Container> idMap = new HashMap<>();
+        final Object context = new Object() {
+            private final Object object = new Object() {
+                public final String cent = "Center";
+            };
+        };
+        String token;
+
+        @Setup
+        public void setup() {
+            tokens.put("string", "'East'");
+            tokens.put("keyword", "{contentPane}");
+            tokens.put("id", "{id:panel}");
+            tokens.put("int", "10");
+            tokens.put("constant", "BoxLayout.Y_AXIS");
+            tokens.put("qualifiedConstant", "java.awt.BorderLayout.NORTH");
+            tokens.put("field", "object.cent");
+            keywordMap.put("{contentPane}", new JPanel());
+            idMap.put("panel", new JPanel());
+            token = tokens.get(kind);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ConstructorState {
+        @Param({"1", "2", "3", "4", "5"})
+        public int arity;
+
+        Class<?>[] argumentTypes;
+
+        @Setup
+        public void setup() {
+            argumentTypes = new Class<?>[arity];
+            Arrays.fill(argumentTypes, JPanel.class);
+        }
+    }
+
+    /**
+     * A class whose constructors take Containers, so that finding them with JPanel arguments requires climbing the
+     * inheritance chain of every argument
+     */
+    public static class Target {
+        public Target(final Container c1) {}
+        public Target(final Container c1, final Container c2) {}
+        public Target(final Container c1, final Container c2, final Container c3) {}
+        public Target(final Container c1, final Container c2, final Container c3, final Container c4) {}
+        public Target(final Container c1, final Container c2, final Container c3, final Container c4, final Container c5) {}
+    }
+
+    @Benchmark
+    public Pair<Class<?>, Object> parseToken(final TokenState state) throws Exception {
+        return ReflectionUtils.parseToken(state.context, state.keywordMap, state.idMap, awtPackages, state.token);
+    }
+
+    @Benchmark
+    public Constructor<Target> getDeclaredConstructorPolymorphic(final ConstructorState state) throws Exception {
+        return ReflectionUtils.getDeclaredConstructorPolymorphic(Target.class, state.argumentTypes);
+    }
+}
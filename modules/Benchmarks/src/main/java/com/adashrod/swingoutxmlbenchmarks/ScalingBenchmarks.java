@@ -0,0 +1,67 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.SwingOutXml;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Container;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SwingOutXml#create(Class, Object...)} on templates from {@link TemplateGenerator}, to show how
+ * creation time grows with the number of elements. Element counts for fan-out 10 are 111, 1111, and 11111 for depths
+ * 2, 3, and 4. Run with -prof gc to also get allocations per create(); {@link ScalingReport} reports retained heap.
+ *
+ * Each create() is measured once, since the template has to be rewritten with new IDs before every create().
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ScalingBenchmarks {
+    @Param({"2", "3", "4"})
+    public int depth;
+
+    @Param({"10"})
+    public int fanOut;
+
+    @Param({"0.5"})
+    public double idDensity;
+
+    @Param({"0.5"})
+    public double bindingDensity;
+
+    @Param({"FlowLayout,BoxLayout,GridLayout"})
+    public String layoutMix;
+
+    private TemplateGenerator.GeneratedTemplate generated;
+
+    @Setup(Level.Trial)
+    public void generate() throws Exception {
+        generated = new TemplateGenerator().depth(depth).fanOut(fanOut).idDensity(idDensity)
+            .bindingDensity(bindingDensity).layoutMix(Arrays.asList(layoutMix.split(","))).generate();
+    }
+
+    @Setup(Level.Invocation)
+    public void rewrite() throws Exception {
+        generated.rewrite();
+    }
+
+    @Benchmark
+    public Container create() throws Exception {
+        return SwingOutXml.create(generated.getContextClass());
+    }
+}
@@ -0,0 +1,128 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.SwingOutXml;
+
+import java.awt.Container;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates templates from {@link TemplateGenerator} of increasing size and reports, for each size, the time, bytes
+ * allocated, and heap retained per create(), in total and per element. Growth that is worse than linear shows up as a
+ * rising per-element column.
+ *
+ * Allocations are measured with com.sun.management.ThreadMXBean, so only allocations on the calling thread are
+ * counted. Retained heap is the difference in used heap, after a GC, with and without the created container being
+ * reachable. Since SwingOutXml keeps every component with an ID in its global ID map, created containers are never
+ * collected, and the retained heap includes the ID map entries.
+ *
+ * usage: ScalingReport [fanOut] [maxDepth] [idDensity] [bindingDensity] [layoutMix] [jsonFile]
+ * e.g.   ScalingReport 10 4 0.5 0.5 FlowLayout,BoxLayout,GridLayout scaling.json
+ */
+public class ScalingReport {
+    private static final int warmups = 5;
+    private static final int measurements = 10;
+
+    private static final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private static final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(final String[] args) throws Exception {
+        final int fanOut = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final double idDensity = args.length > 2 ? Double.parseDouble(args[2]) : 0.5;
+        final double bindingDensity = args.length > 3 ? Double.parseDouble(args[3]) : 0.5;
+        final List<String> layoutMix = Arrays.asList((args.length > 4 ? args[4] : "FlowLayout,BoxLayout,GridLayout").split(","));
+        final String jsonFile = args.length > 5 ? args[5] : null;
+
+        final List<Result> results = new ArrayList<>();
+        System.out.printf("%8s %12s %14s %14s %12s %12s %12s%n", "elements", "ms/create", "alloc bytes", "retained bytes",
+            "ns/element", "alloc/elem", "retain/elem");
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            final TemplateGenerator.GeneratedTemplate generated = new TemplateGenerator().depth(depth).fanOut(fanOut)
+                .idDensity(idDensity).bindingDensity(bindingDensity).layoutMix(layoutMix).generate();
+            final Result result = measure(generated);
+            results.add(result);
+            final int n = result.elements;
+            System.out.printf("%8d %12.3f %14d %14d %12d %12d %12d%n", n, result.nanos / 1e6, result.allocatedBytes,
+                result.retainedBytes, result.nanos / n, result.allocatedBytes / n, result.retainedBytes / n);
+        }
+        if (jsonFile != null) {
+            writeJson(jsonFile, results);
+        }
+    }
+
+    /**
+     * @return median time, allocations, and retained heap of several create()s
+     */
+    private static Result measure(final TemplateGenerator.GeneratedTemplate generated) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            generated.rewrite();
+            SwingOutXml.create(generated.getContextClass());
+        }
+        final long[] nanos = new long[measurements];
+        final long[] allocated = new long[measurements];
+        final long[] retained = new long[measurements];
+        final long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < measurements; i++) {
+            generated.rewrite();
+            final long usedBefore = usedHeapAfterGc();
+            final long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            final long start = System.nanoTime();
+            Container container = SwingOutXml.create(generated.getContextClass());
+            nanos[i] = System.nanoTime() - start;
+            allocated[i] = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            retained[i] = usedHeapAfterGc() - usedBefore;
+            // keeps the container reachable until after the second measurement
+            if (container.getComponentCount() < 0) {
+                container = null;
+            }
+        }
+        return new Result(generated.getElementCount(), median(nanos), median(allocated), median(retained));
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long median(final long[] values) {
+        final long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static void writeJson(final String jsonFile, final List<Result> results) throws IOException {
+        final StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            final Result result = results.get(i);
+            json.append(String.format("  {\"elements\": %d, \"nanos\": %d, \"allocatedBytes\": %d, \"retainedBytes\": %d}%s%n",
+                result.elements, result.nanos, result.allocatedBytes, result.retainedBytes, i < results.size() - 1 ? "," : ""));
+        }
+        json.append("]\n");
+        Files.write(Paths.get(jsonFile), json.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static class Result {
+        final int elements;
+        final long nanos;
+        final long allocatedBytes;
+        final long retainedBytes;
+
+        Result(final int elements, final long nanos, final long allocatedBytes, final long retainedBytes) {
+            this.elements = elements;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.retainedBytes = retainedBytes;
+        }
+    }
+}
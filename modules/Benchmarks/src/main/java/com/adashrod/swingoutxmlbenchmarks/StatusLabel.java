@@ -0,0 +1,17 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import javax.swing.JLabel;
+
+/**
+ * A label whose status listeners are registered with the long-lived {@link WeakListenerLeakCheck.Controller} instead
+ * of with the label, like a component that exposes an application-wide model, see {@link WeakListenerLeakCheck}
+ */
+public class StatusLabel extends JLabel {
+    public void addStatusListener(final WeakListenerLeakCheck.StatusListener listener) {
+        WeakListenerLeakCheck.Controller.instance.addStatusListener(listener);
+    }
+
+    public void removeStatusListener(final WeakListenerLeakCheck.StatusListener listener) {
+        WeakListenerLeakCheck.Controller.instance.removeStatusListener(listener);
+    }
+}
@@ -0,0 +1,62 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.SwingOutXml;
+import com.adashrod.swingoutxmlexamples.FancyPanel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Container;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link SwingOutXml#create(Class, Object...)} for each of the example templates. Since the benchmarks run
+ * headless, and JFrames and JDialogs can't be created headless, the JFrame/JDialog-rooted examples are benchmarked
+ * with panel-rooted variants in /benchmark. The variants bind by field instead of by ID because IDs are global in
+ * SwingOutXml and can't be reused, so a template with IDs can only be created once per JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TemplateBenchmarks {
+    private static final Map<String, Class<? extends Container>> templateClasses = new HashMap<>();
+
+    static {
+        templateClasses.put("aBunchOfStuff", ABunchOfStuffPanel.class);
+        templateClasses.put("actionTest", ActionTestPanel.class);
+        templateClasses.put("cellRenderers", CellRenderersPanel.class);
+        templateClasses.put("customComponent", CustomComponentPanel.class);
+        templateClasses.put("dialog", DialogPanel.class);
+        templateClasses.put("fancyPanel", FancyPanel.class);
+        templateClasses.put("helloWorld", HelloWorldPanel.class);
+        templateClasses.put("mouse", MousePanel.class);
+    }
+
+    @Param({"aBunchOfStuff", "actionTest", "cellRenderers", "customComponent", "dialog", "fancyPanel", "helloWorld", "mouse"})
+    public String template;
+
+    private Class<? extends Container> templateClass;
+
+    @Setup
+    public void setup() {
+        templateClass = templateClasses.get(template);
+    }
+
+    @Benchmark
+    public Container create() throws Exception {
+        return SwingOutXml.create(templateClass);
+    }
+}
@@ -0,0 +1,262 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.awt.Container;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates large synthetic templates and matching context classes for measuring how SwingOutXml scales with the
+ * number of elements.
+ *
+ * The generated tree is a j-panel root with depth levels of children below it, each non-leaf having fanOut children.
+ * Non-leaf elements are j-panels with layouts cycled from layoutMix; leaves alternate between j-labels and j-buttons.
+ * The number of elements is 1 + fanOut + fanOut^2 + ... + fanOut^depth, e.g. depth 4 and fan-out 10 gives 11111.
+ *
+ * idDensity is the fraction of elements that get an id attribute, and bindingDensity is the fraction that are bound
+ * to a field with a field attribute. Every fourth bound leaf also gets the context's MouseListener. Which elements get
+ * IDs and bindings is chosen with a fixed seed, so the same configuration always produces the same tree.
+ *
+ * IDs are global in SwingOutXml and can only be created once per JVM, so {@link GeneratedTemplate#rewrite()} is used to
+ * rewrite the template with a fresh ID prefix before each create(). The context class is compiled once, since its
+ * fields are bound by name, not by ID.
+ */
+public class TemplateGenerator {
+    private static final AtomicInteger generatedCount = new AtomicInteger();
+
+    private int depth = 3;
+    private int fanOut = 10;
+    private double idDensity = 0.5;
+    private double bindingDensity = 0.5;
+    private List<String> layoutMix = Arrays.asList("FlowLayout", "BoxLayout", "GridLayout");
+    private long seed = 1;
+
+    public TemplateGenerator depth(final int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    public TemplateGenerator fanOut(final int fanOut) {
+        this.fanOut = fanOut;
+        return this;
+    }
+
+    public TemplateGenerator idDensity(final double idDensity) {
+        this.idDensity = idDensity;
+        return this;
+    }
+
+    public TemplateGenerator bindingDensity(final double bindingDensity) {
+        this.bindingDensity = bindingDensity;
+        return this;
+    }
+
+    /**
+     * @param layoutMix layouts to cycle through for non-leaf elements; any of FlowLayout, BoxLayout, GridLayout
+     * @return this
+     */
+    public TemplateGenerator layoutMix(final List<String> layoutMix) {
+        for (final String layout: layoutMix) {
+            if (!Arrays.asList("FlowLayout", "BoxLayout", "GridLayout").contains(layout)) {
+                throw new IllegalArgumentException(String.format("Unsupported layout for generated templates: %s", layout));
+            }
+        }
+        this.layoutMix = new ArrayList<>(layoutMix);
+        return this;
+    }
+
+    public TemplateGenerator seed(final long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generates the template and compiles the context class into a new temporary directory
+     * @return the generated template
+     * @throws IOException error writing files
+     */
+    public GeneratedTemplate generate() throws IOException, ReflectiveOperationException {
+        final Random random = new Random(seed);
+        final int number = generatedCount.incrementAndGet();
+        final Path directory = Files.createTempDirectory("swingoutxml-generated");
+        final Path templateFile = directory.resolve(String.format("generated%d.xml", number));
+        final String className = String.format("GeneratedContext%d", number);
+
+        final List<Node> boundNodes = new ArrayList<>();
+        final int[] count = {0};
+        final Node root = new Node("j-panel", layoutMix.get(0), null, false, false);
+        count[0]++;
+        addChildren(root, 1, random, boundNodes, count);
+
+        final StringBuilder source = new StringBuilder();
+        source.append("package generated;\n\n")
+            .append("@com.adashrod.swingoutxml.annotation.SwingOutContainer(template = \"")
+            .append(templateFile.toAbsolutePath().toString().replace("\\", "\\\\")).append("\")\n")
+            .append("public class ").append(className).append(" extends javax.swing.JPanel {\n")
+            .append("    java.awt.event.MouseListener listener = new java.awt.event.MouseAdapter() {};\n");
+        for (final Node node: boundNodes) {
+            source.append("    ").append(node.fieldType()).append(" ").append(node.field).append(";\n");
+        }
+        source.append("}\n");
+
+        final Path sourceDirectory = directory.resolve("generated");
+        Files.createDirectories(sourceDirectory);
+        final Path sourceFile = sourceDirectory.resolve(className + ".java");
+        Files.write(sourceFile, source.toString().getBytes(StandardCharsets.UTF_8));
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("TemplateGenerator needs a JDK to compile context classes");
+        }
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        final int status = compiler.run(null, null, errors, "-nowarn", "-cp", System.getProperty("java.class.path"),
+            "-d", directory.toString(), sourceFile.toString());
+        if (status != 0) {
+            throw new IllegalStateException(String.format("Couldn't compile %s:%n%s", sourceFile, errors));
+        }
+        final URLClassLoader classLoader = new URLClassLoader(new URL[]{directory.toUri().toURL()}, getClass().getClassLoader());
+        final Class<? extends Container> contextClass = classLoader.loadClass("generated." + className).asSubclass(Container.class);
+
+        final GeneratedTemplate generated = new GeneratedTemplate(templateFile, contextClass, root, count[0]);
+        generated.rewrite();
+        return generated;
+    }
+
+    private void addChildren(final Node parent, final int level, final Random random, final List<Node> boundNodes, final int[] count) {
+        for (int i = 0; i < fanOut; i++) {
+            final int index = count[0]++;
+            final boolean leaf = level == depth;
+            final String tag = leaf ? (index % 2 == 0 ? "j-label" : "j-button") : "j-panel";
+            final String layout = leaf ? null : layoutMix.get(index % layoutMix.size());
+            final boolean bound = random.nextDouble() < bindingDensity;
+            final boolean hasId = random.nextDouble() < idDensity;
+            final Node node = new Node(tag, layout, bound ? String.format("f%d", index) : null, hasId,
+                leaf && bound && boundNodes.size() % 4 == 0);
+            if (bound) {
+                boundNodes.add(node);
+            }
+            parent.children.add(node);
+            if (!leaf) {
+                addChildren(node, level + 1, random, boundNodes, count);
+            }
+        }
+    }
+
+    /**
+     * A generated template file and its context class
+     */
+    public static class GeneratedTemplate {
+        private static final AtomicInteger prefixCount = new AtomicInteger();
+
+        private final Path templateFile;
+        private final Class<? extends Container> contextClass;
+        private final Node root;
+        private final int elementCount;
+
+        private GeneratedTemplate(final Path templateFile, final Class<? extends Container> contextClass, final Node root,
+                final int elementCount) {
+            this.templateFile = templateFile;
+            this.contextClass = contextClass;
+            this.root = root;
+            this.elementCount = elementCount;
+        }
+
+        public Path getTemplateFile() {
+            return templateFile;
+        }
+
+        /**
+         * @return the class to pass to SwingOutXml.create()
+         */
+        public Class<? extends Container> getContextClass() {
+            return contextClass;
+        }
+
+        /**
+         * @return number of elements in the template, including the root
+         */
+        public int getElementCount() {
+            return elementCount;
+        }
+
+        /**
+         * Rewrites the template with a new, unused ID prefix so that it can be created again
+         * @throws IOException error writing the file
+         */
+        public void rewrite() throws IOException {
+            final String prefix = String.format("g%d_", prefixCount.incrementAndGet());
+            final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n");
+            final int[] idCount = {0};
+            root.write(xml, "", prefix, idCount);
+            Files.write(templateFile, xml.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class Node {
+        final String tag;
+        final String layout;
+        final String field;
+        final boolean hasId;
+        final boolean listener;
+        final List<Node> children = new ArrayList<>();
+
+        Node(final String tag, final String layout, final String field, final boolean hasId, final boolean listener) {
+            this.tag = tag;
+            this.layout = layout;
+            this.field = field;
+            this.hasId = hasId;
+            this.listener = listener;
+        }
+
+        String fieldType() {
+            switch (tag) {
+                case "j-label":
+                    return "javax.swing.JLabel";
+                case "j-button":
+                    return "javax.swing.JButton";
+                default:
+                    return "javax.swing.JPanel";
+            }
+        }
+
+        void write(final StringBuilder xml, final String indent, final String idPrefix, final int[] idCount) {
+            xml.append(indent).append('<').append(tag);
+            if (hasId) {
+                xml.append(" id=\"").append(idPrefix).append(idCount[0]++).append('"');
+            }
+            if (field != null) {
+                xml.append(" field=\"").append(field).append('"');
+            }
+            if (listener) {
+                xml.append(" listeners=\"listener\"");
+            }
+            if (layout != null) {
+                xml.append(" layout=\"").append(layout).append('"');
+                if ("BoxLayout".equals(layout)) {
+                    xml.append(" layout-constructor-args=\"this, BoxLayout.Y_AXIS\"");
+                } else if ("GridLayout".equals(layout)) {
+                    xml.append(" layout-constructor-args=\"0, ").append(Math.max(children.size(), 1)).append('"');
+                }
+            }
+            if (children.isEmpty()) {
+                xml.append('>').append(tag.substring(2)).append("</").append(tag).append(">\n");
+            } else {
+                xml.append(">\n");
+                for (final Node child: children) {
+                    child.write(xml, indent + "    ", idPrefix, idCount);
+                }
+                xml.append(indent).append("</").append(tag).append(">\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.SwingOutXml;
+
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import java.awt.GraphicsEnvironment;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowEvent;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Checks that listeners bound with \@Listener(weak = true) don't keep windows reachable and don't stay registered
+ * after they're collected.
+ *
+ * 1. Opens and closes 1000 windows, each of which registers a listener that captures the window with a long-lived
+ *    controller, then checks that all of the windows have been collected. Without weak = true, the controller's listener
+ *    list keeps every window reachable and this check fails. Each window is shown and then closed the way a user closes
+ *    it, so its peer is created and disposed, which means this needs a display, e.g. xvfb-run on a build server.
+ * 2. Creates a window, drops the only reference to one of its listeners, and checks that the listener's proxy has removed
+ *    itself from the window's components after the listener is collected and the next event arrives.
+ *
+ * Exits with status 1 if either check fails.
+ */
+public class WeakListenerLeakCheck {
+    private static final int windowCount = 1000;
+
+    public interface StatusListener extends EventListener {
+        void statusChanged(String text);
+    }
+
+    /**
+     * A controller that outlives the windows that listen to it
+     */
+    public static class Controller {
+        public static final Controller instance = new Controller();
+
+        private final List<StatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+        public void addStatusListener(final StatusListener listener) {
+            statusListeners.add(listener);
+        }
+
+        public void removeStatusListener(final StatusListener listener) {
+            statusListeners.remove(listener);
+        }
+
+        public void setStatus(final String text) {
+            for (final StatusListener listener: statusListeners) {
+                listener.statusChanged(text);
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("WeakListenerLeakCheck opens windows and can't run headless");
+            System.exit(1);
+        }
+        final boolean windowsCollected = checkWindowsCollected();
+        final boolean proxiesRemoved = checkProxiesRemoved();
+        if (!windowsCollected || !proxiesRemoved) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean checkWindowsCollected() throws Exception {
+        final List<WeakReference<JFrame>> frames = new ArrayList<>();
+        for (int i = 0; i < windowCount; i++) {
+            // one window per event, so that the events for showing and closing it are dispatched before the next one
+            SwingUtilities.invokeAndWait(() -> {
+                final WeakListenerPanel panel;
+                try {
+                    panel = SwingOutXml.create(WeakListenerPanel.class);
+                } catch (final Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                final JFrame frame = new JFrame();
+                frame.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
+                frame.add(panel);
+                frame.pack();
+                frame.setVisible(true);
+                frame.dispatchEvent(new WindowEvent(frame, WindowEvent.WINDOW_CLOSING));
+                frames.add(new WeakReference<>(frame));
+            });
+        }
+        SwingUtilities.invokeAndWait(() -> {
+            Controller.instance.setStatus("closed");
+        });
+        // let the events that closing the windows queued be dispatched
+        SwingUtilities.invokeAndWait(() -> {});
+        final int live = countLive(frames);
+        System.out.printf("%d of %d windows still reachable after closing%n", live, windowCount);
+        return live == 0;
+    }
+
+    private static boolean checkProxiesRemoved() throws Exception {
+        final WeakListenerPanel[] panel = new WeakListenerPanel[1];
+        final int[] before = new int[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                panel[0] = SwingOutXml.create(WeakListenerPanel.class);
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+            before[0] = panel[0].label1.getMouseListeners().length;
+            // the field was the only strong reference to this listener
+            panel[0].ownListener = null;
+        });
+        final WeakListenerPanel orphan = panel[0];
+        forceGc();
+        // the next event delivers nothing and removes the proxy
+        SwingUtilities.invokeAndWait(() -> {
+            orphan.label1.dispatchEvent(new MouseEvent(orphan.label1, MouseEvent.MOUSE_ENTERED, 0, 0, 0, 0, 0, false));
+        });
+        SwingUtilities.invokeAndWait(() -> {});
+        final int after = orphan.label1.getMouseListeners().length;
+        System.out.printf("mouse listeners on a component before the listener was collected: %d, after: %d%n", before[0], after);
+        return after == before[0] - 1;
+    }
+
+    private static int countLive(final List<? extends WeakReference<?>> references) {
+        forceGc();
+        int live = 0;
+        for (final WeakReference<?> reference: references) {
+            if (reference.get() != null) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private static void forceGc() {
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
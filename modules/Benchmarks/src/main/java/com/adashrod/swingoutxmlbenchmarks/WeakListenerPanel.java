@@ -0,0 +1,28 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.annotation.Listener;
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseListener;
+
+/**
+ * A panel with weakly bound listeners, see {@link WeakListenerLeakCheck}. statusListener captures the panel and is
+ * registered with the long-lived controller through {@link StatusLabel}, so without weak = true the controller keeps
+ * every panel reachable.
+ */
+@SwingOutContainer(template = "/benchmark/weakListenerPanel.xml")
+public class WeakListenerPanel extends JPanel {
+    StatusLabel status;
+    JLabel label1;
+
+    @Listener(weak = true) WeakListenerLeakCheck.StatusListener statusListener = new WeakListenerLeakCheck.StatusListener() {
+        @Override
+        public void statusChanged(final String text) {
+            status.setText(text);
+        }
+    };
+    @Listener(weak = true) MouseListener ownListener = new MouseAdapter() {};
+}
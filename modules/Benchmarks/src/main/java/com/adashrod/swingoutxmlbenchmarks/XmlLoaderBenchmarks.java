@@ -0,0 +1,39 @@
+package com.adashrod.swingoutxmlbenchmarks;
+
+import com.adashrod.swingoutxml.xml.XmlLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link XmlLoader#load(String)} on the example templates, which are on the classpath
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class XmlLoaderBenchmarks {
+    @Param({"/template/aBunchOfStuff.xml", "/template/actionTest.xml", "/template/cellRenderers.xml",
+        "/template/customComponent.xml", "/template/dialogChildWindow.xml", "/template/dialogParentWindow.xml",
+        "/template/fancyPanel.xml", "/template/helloWorld.xml", "/template/instanceHelloWorld.xml", "/template/mouse.xml"})
+    public String template;
+
+    private final XmlLoader xmlLoader = new XmlLoader();
+
+    @Benchmark
+    public Document load() throws Exception {
+        return xmlLoader.load(template);
+    }
+}
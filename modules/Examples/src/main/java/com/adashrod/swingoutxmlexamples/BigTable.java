@@ -0,0 +1,34 @@
+package com.adashrod.swingoutxmlexamples;
+
+import com.adashrod.swingoutxml.PostSetup;
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+import com.adashrod.swingoutxml.model.ColumnarTableModel;
+
+import javax.swing.JFrame;
+import javax.swing.JTable;
+
+@SwingOutContainer(template = "/template/bigTable.xml")
+public class BigTable extends JFrame implements PostSetup {
+    private static final int ROWS = 1_000_000;
+    private static final String[] CITIES = {"Albuquerque", "Boise", "Chicago", "Denver", "El Paso"};
+
+    JTable table;
+    ColumnarTableModel tableModel = new ColumnarTableModel(ROWS, false)
+        .addIntColumn("id")
+        .addStringColumn("city")
+        .addLongColumn("timestamp")
+        .addDoubleColumn("price");
+
+    @Override
+    public void afterCreate() {
+        final int first = tableModel.addRows(ROWS);
+        final long now = System.currentTimeMillis();
+        for (int i = first; i < first + ROWS; i++) {
+            tableModel.setInt(i, 0, i);
+            tableModel.setString(i, 1, CITIES[i % CITIES.length]);
+            tableModel.setLong(i, 2, now - i * 1000L);
+            tableModel.setDouble(i, 3, (i % 10000) / 100.0);
+        }
+        tableModel.fireTableRowsUpdated(first, first + ROWS - 1);
+    }
+}
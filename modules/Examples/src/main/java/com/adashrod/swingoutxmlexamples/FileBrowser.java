@@ -0,0 +1,58 @@
+package com.adashrod.swingoutxmlexamples;
+
+import com.adashrod.swingoutxml.annotation.SwingOutContainer;
+import com.adashrod.swingoutxml.model.LazyTreeModel;
+
+import javax.swing.JFrame;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@SwingOutContainer(template = "/template/fileBrowser.xml")
+public class FileBrowser extends JFrame {
+    /**
+     * A file and whether it's a directory, which is checked by the loader, off of the EDT
+     */
+    static class FileEntry {
+        final File file;
+        final boolean directory;
+
+        FileEntry(final File file, final boolean directory) {
+            this.file = file;
+            this.directory = directory;
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    LazyTreeModel<FileEntry> fileTree = new LazyTreeModel<>(new FileEntry(new File(System.getProperty("user.home")), true),
+            new LazyTreeModel.Loader<FileEntry>() {
+        @Override
+        public List<FileEntry> loadChildren(final FileEntry parent) {
+            final File[] files = parent.file.listFiles();
+            if (files == null) {
+                return Collections.emptyList();
+            }
+            Arrays.sort(files);
+            final List<FileEntry> entries = new ArrayList<>(files.length);
+            for (final File file: files) {
+                entries.add(new FileEntry(file, file.isDirectory()));
+            }
+            return entries;
+        }
+
+        @Override
+        public boolean isLeaf(final FileEntry entry) {
+            return !entry.directory;
+        }
+    });
+
+    {
+        fileTree.setMaxLoadedNodes(10000);
+    }
+}
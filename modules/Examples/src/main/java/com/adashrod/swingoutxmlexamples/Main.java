@@ -17,6 +17,8 @@ public class Main {
 //        SwingOutXml.create(ABunchOfStuff.class);
 //        SwingOutXml.create(DialogParent.class);
 //        SwingOutXml.create(CellRenderers.class);
+//        SwingOutXml.create(BigTable.class);
+//        SwingOutXml.create(FileBrowser.class);
 
 
 //        final InstanceHelloWorld instanceHelloWorld = new InstanceHelloWorld();
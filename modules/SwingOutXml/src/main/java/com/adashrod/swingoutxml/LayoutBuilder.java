@@ -1,5 +1,6 @@
 package com.adashrod.swingoutxml;
 
+import com.adashrod.swingoutxml.jfr.LayoutBuildEvent;
 import com.adashrod.swingoutxml.util.ReflectionUtils;
 import javafx.util.Pair;
 
@@ -77,6 +78,8 @@ public class LayoutBuilder {
     public static LayoutManager buildLayout(final Collection<String> packages, final Map<String, Container> idMap,
             final String layoutName, final Container context, final List<String> constructorArgList)
             throws IllegalAccessException, InstantiationException, NoSuchMethodException, InvocationTargetException, ParseException {
+        final LayoutBuildEvent event = new LayoutBuildEvent();
+        event.begin();
         final Class rawClass = ReflectionUtils.classForName(packages, layoutName);
         if (!LayoutManager.class.isAssignableFrom(rawClass)) {
             throw new IllegalArgumentException(String.format("%s does not extend LayoutManager", layoutName));
@@ -85,6 +88,12 @@ public class LayoutBuilder {
         final List<Object> arguments = new ArrayList<>();
         final Class[] parameterTypes = parseArguments(packages, idMap, arguments, context, constructorArgList);
         final Constructor layoutConstructor = ReflectionUtils.getDeclaredConstructorPolymorphic(layoutClass, parameterTypes);
-        return (LayoutManager) layoutConstructor.newInstance(arguments.toArray());
+        final LayoutManager layoutManager = (LayoutManager) layoutConstructor.newInstance(arguments.toArray());
+        event.end();
+        if (event.shouldCommit()) {
+            event.setLayout(layoutName, context.getClass());
+            event.commit();
+        }
+        return layoutManager;
     }
 }
@@ -1,10 +1,36 @@
 package com.adashrod.swingoutxml;
 
+import com.adashrod.swingoutxml.action.ActionExecutors;
+import com.adashrod.swingoutxml.action.AsyncAction;
 import com.adashrod.swingoutxml.annotation.CellRenderer;
 import com.adashrod.swingoutxml.annotation.ComponentAction;
 import com.adashrod.swingoutxml.annotation.Listener;
+import com.adashrod.swingoutxml.annotation.Sink;
 import com.adashrod.swingoutxml.annotation.SwingOutContainer;
 import com.adashrod.swingoutxml.annotation.UiComponent;
+import com.adashrod.swingoutxml.attribute.AttributeHandler;
+import com.adashrod.swingoutxml.attribute.AttributeHandlerRegistry;
+import com.adashrod.swingoutxml.binding.BoundValue;
+import com.adashrod.swingoutxml.binding.FlowSink;
+import com.adashrod.swingoutxml.binding.Repeater;
+import com.adashrod.swingoutxml.component.ComponentFactory;
+import com.adashrod.swingoutxml.component.ComponentFactoryRegistry;
+import com.adashrod.swingoutxml.jfr.ElementProcessEvent;
+import com.adashrod.swingoutxml.jfr.ListenerBindEvent;
+import com.adashrod.swingoutxml.jfr.TemplateLoadEvent;
+import com.adashrod.swingoutxml.jfr.WindowCreateEvent;
+import com.adashrod.swingoutxml.layer.ImageCacheLayerUI;
+import com.adashrod.swingoutxml.layout.MemoizingPanel;
+import com.adashrod.swingoutxml.listener.CoalescingMouseDispatcher;
+import com.adashrod.swingoutxml.listener.DelegatingEventDispatcher;
+import com.adashrod.swingoutxml.listener.ListenerAdderRegistry;
+import com.adashrod.swingoutxml.listener.WeakListener;
+import com.adashrod.swingoutxml.metrics.CreationListener;
+import com.adashrod.swingoutxml.metrics.CreationPhase;
+import com.adashrod.swingoutxml.metrics.CreationTiming;
+import com.adashrod.swingoutxml.renderer.CachingListCellRenderer;
+import com.adashrod.swingoutxml.style.StyleSheet;
+import com.adashrod.swingoutxml.style.StyleSheets;
 import com.adashrod.swingoutxml.util.DomUtils;
 import com.adashrod.swingoutxml.util.NameUtils;
 import com.adashrod.swingoutxml.util.ReflectionUtils;
@@ -12,46 +38,32 @@ import com.adashrod.swingoutxml.xml.XmlLoader;
 import javafx.util.Pair;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.swing.AbstractButton;
 import javax.swing.Action;
 import javax.swing.ButtonGroup;
-import javax.swing.JButton;
-import javax.swing.JCheckBox;
 import javax.swing.JComponent;
-import javax.swing.JDialog;
-import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
-import javax.swing.JRadioButton;
-import javax.swing.JScrollPane;
-import javax.swing.JTextArea;
-import javax.swing.JTextField;
-import javax.swing.JTree;
 import javax.swing.ListCellRenderer;
-import javax.swing.event.ListSelectionListener;
-import javax.swing.event.TreeExpansionListener;
-import javax.swing.event.TreeWillExpandListener;
 import javax.swing.text.JTextComponent;
 import java.awt.Container;
-import java.awt.Dimension;
 import java.awt.LayoutManager;
 import java.awt.Window;
-import java.awt.event.ActionListener;
-import java.awt.event.KeyListener;
-import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.event.MouseWheelListener;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collection;
@@ -64,6 +76,8 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -77,6 +91,11 @@ import java.util.stream.Collectors;
  * \@{@link com.adashrod.swingoutxml.annotation.SwingOutContainer} and {@link SwingOutXml#create(Class, Object...)} is
  * called with the class being instantiated.
  *
+ * Creation can be observed in two ways: {@link SwingOutXml#addCreationListener(CreationListener)} for timings of each
+ * phase in-process, and the JFR events in com.adashrod.swingoutxml.jfr (category "SwingOutXml") for recordings of
+ * production applications. The JFR events are enabled by default; events for individual elements, layouts, and
+ * listener bindings have a threshold of 1 ms. When no recording is running they cost almost nothing.
+ *
  * @see com.adashrod.swingoutxml.annotation.SwingOutContainer
  * @see com.adashrod.swingoutxml.annotation.UiComponent
  * @see com.adashrod.swingoutxml.annotation.Listener
@@ -85,8 +104,6 @@ import java.util.stream.Collectors;
  * @author Aaron Rodriguez (adashrod@gmail.com)
  */
 public class SwingOutXml {
-    private static final Map<String, Class<? extends Container>> containerClasses = new HashMap<>();
-    private static final Map<String, Class<? extends JComponent>> componentClasses = new HashMap<>();
     /**
      * Map containing all of the containers and components created by SwingOutXml
      */
@@ -97,6 +114,10 @@ public class SwingOutXml {
      * container.
      */
     private static final Map<Pair<Container, String>, ButtonGroup> buttonGroups = new HashMap<>();
+    /**
+     * Listeners that receive timings of each phase of create() and render()
+     */
+    private static final List<CreationListener> creationListeners = new CopyOnWriteArrayList<>();
 
     private static final Collection<String> awtPackages = Arrays.asList("java.awt, javax.swing".split("\\s*,\\s*"));
 
@@ -104,46 +125,30 @@ public class SwingOutXml {
 
     private static final String A_ID = "id";
     private static final String A_FIELD = "field";
-    private static final String A_ENABLED = "enabled";
     private static final String A_CONSTRUCTOR_ARGS = "constructor-args";
-    private static final String A_TITLE = "title";
     private static final String A_VISIBLE = "visible";
     private static final String A_LAYOUT = "layout";
     private static final String A_CONSTRAINTS = "constraints";
     private static final String A_LAYOUT_CONSTRUCTOR_ARGS = "layout-constructor-args";
     private static final String A_LISTENERS = "listeners";
     private static final String A_ACTION = "action";
-    private static final String A_PREFERRED_SIZE = "preferred-size";
-    private static final String A_EDITABLE = "editable";
     private static final String A_ADD = "add";
     private static final String A_BUTTON_GROUP = "button-group";
     private static final String A_CELL_RENDERER = "cell-renderer";
+    private static final String A_STYLE = "style";
+    private static final String A_PUBLISHERS = "publishers";
+    private static final String A_ITEMS = "items";
+    private static final String A_KEY = "key";
+    private static final String A_CACHE = "cache";
+    private static final String A_STABLE_LAYOUT = "stable-layout";
+    private static final String E_REPEAT = "repeat";
     // todo:
-    // default-close-operation
-    // selection-mode
-    // layout-orientation
-    // tool-tip-text
     // modal
     // modality
     // JFrame: graphicsConfiguration (c only)
     // JWindow: owner (c only), graphicsConfiguration (c only)
     // JDialog: owner (c only), , graphicsConfiguration (c only)
 
-    static {
-        containerClasses.put("JFrame", JFrame.class);
-
-        componentClasses.put("JButton", JButton.class);
-        componentClasses.put("JCheckBox", JCheckBox.class);
-        componentClasses.put("JComponent", JComponent.class);
-        componentClasses.put("JLabel", JLabel.class);
-        componentClasses.put("JList", JList.class);
-        componentClasses.put("JPanel", JPanel.class);
-        componentClasses.put("JRadioButton", JRadioButton.class);
-        componentClasses.put("JScrollPane", JScrollPane.class);
-        componentClasses.put("JTextArea", JTextArea.class);
-        componentClasses.put("JTextField", JTextField.class);
-    }
-
     /**
      * The context used for finding fields; the object that has the \@SwingOutXml annotation. When create() is used, this
      * is a new instance of the class passed in; in render(), it is the object passed in
@@ -153,17 +158,100 @@ public class SwingOutXml {
      * The top level container being rendered, e.g. a JFrame. When create() is used, topLevelContainer == context
      */
     private Container topLevelContainer;
+    /**
+     * styles defined in or imported by the template
+     */
+    private StyleSheet styleSheet;
     /**
      * map of annotation type to which map should be queried for that annotation type to find ID associations
      */
     private final Map<Class<? extends Annotation>, Map<String, Collection<Pair<String, Field>>>> mapMap = new HashMap<>();
+    /**
+     * path of the template being rendered
+     */
+    private final String template;
+    /**
+     * whether there were any creation listeners when creation started; no timing is done when there aren't
+     */
+    private final boolean timed;
+
+    private SwingOutXml(final String template) {
+        this.template = template;
+        timed = !creationListeners.isEmpty();
+    }
+
+    /**
+     * Adds a listener that will receive the timings of each phase of all subsequent calls to create() and render().
+     * When no listeners are registered, no timing is done.
+     * @param listener listener to add
+     */
+    public static void addCreationListener(final CreationListener listener) {
+        creationListeners.add(listener);
+    }
+
+    /**
+     * @param listener listener to remove
+     */
+    public static void removeCreationListener(final CreationListener listener) {
+        creationListeners.remove(listener);
+    }
+
+    /**
+     * @return the current time to pass to {@link SwingOutXml#reportTiming(CreationPhase, Element, long)}, or 0 if no
+     * timing is being done
+     */
+    private long startTiming() {
+        return timed ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports the time since start to the creation listeners, if timing is being done
+     * @param phase   the phase that was timed
+     * @param element the element that the phase was for, or null if it isn't specific to an element
+     * @param start   the time from {@link SwingOutXml#startTiming()}
+     */
+    private void reportTiming(final CreationPhase phase, final Element element, final long start) {
+        if (!timed) {
+            return;
+        }
+        final long duration = System.nanoTime() - start;
+        final CreationTiming timing = new CreationTiming(template, phase, element != null ? element.getTagName() : null,
+            element != null ? DomUtils.getAttribute(A_ID, element) : null, duration);
+        for (final CreationListener listener: creationListeners) {
+            listener.phaseTimed(timing);
+        }
+    }
+
+    /**
+     * Loads and parses the template
+     * @return the root element of the template
+     */
+    private Element loadTemplate() throws IOException, SAXException {
+        final XmlLoader xmlLoader = new XmlLoader();
+        final TemplateLoadEvent event = new TemplateLoadEvent();
+        event.begin();
+        long start = startTiming();
+        final InputSource source = xmlLoader.open(template);
+        reportTiming(CreationPhase.LOAD, null, start);
+        start = startTiming();
+        final Document xmlDoc = xmlLoader.parse(source);
+        reportTiming(CreationPhase.PARSE, null, start);
+        styleSheet = StyleSheets.forTemplate(template, xmlDoc.getDocumentElement());
+        event.end();
+        if (event.shouldCommit()) {
+            event.setTemplate(template);
+            event.commit();
+        }
+        return xmlDoc.getDocumentElement();
+    }
 
     private void setContext(final Object context) {
         this.context = context;
         final Map<String, Collection<Pair<String, Field>>> idUiComponentMap = new HashMap<>(),
             idListenerMap = new HashMap<>(),
             idComponentActionMap = new HashMap<>(),
-            idCellRendererMap = new HashMap<>();
+            idCellRendererMap = new HashMap<>(),
+            idSinkMap = new HashMap<>();
         for (final Field field: context.getClass().getDeclaredFields()) {
             final UiComponent uiComponent = field.getDeclaredAnnotation(UiComponent.class);
             field.setAccessible(true);
@@ -194,6 +282,14 @@ public class SwingOutXml {
                     idComponentActionMap.put(trimmedId, Collections.singleton(new Pair<>("", field)));
                 }
             }
+            final Sink sink = field.getDeclaredAnnotation(Sink.class);
+            if (sink != null) {
+                for (final String id: sink.value()) {
+                    final String trimmedId = id.trim();
+                    idSinkMap.putIfAbsent(trimmedId, new HashSet<>());
+                    idSinkMap.get(trimmedId).add(new Pair<>(sink.property(), field));
+                }
+            }
             final CellRenderer cellRenderer = field.getDeclaredAnnotation(CellRenderer.class);
             if (cellRenderer != null) {
                 for (final String id: cellRenderer.value()) {
@@ -207,6 +303,7 @@ public class SwingOutXml {
         mapMap.put(Listener.class, idListenerMap);
         mapMap.put(ComponentAction.class, idComponentActionMap);
         mapMap.put(CellRenderer.class, idCellRendererMap);
+        mapMap.put(Sink.class, idSinkMap);
     }
 
     /**
@@ -226,20 +323,30 @@ public class SwingOutXml {
         if (swingOutContainer == null) {
             throw new IllegalArgumentException("has to implement SwingOutContainer");
         }
-        final String templateFile = swingOutContainer.template();
-        final Document xmlDoc = new XmlLoader().load(templateFile);
-        final Element rootElement = xmlDoc.getDocumentElement();
+        final SwingOutXml swingOutXml = new SwingOutXml(swingOutContainer.template());
+        final WindowCreateEvent event = new WindowCreateEvent();
+        event.begin();
+        final long createStart = swingOutXml.startTiming();
+        final Element rootElement = swingOutXml.loadTemplate();
 
-        final SwingOutXml swingOutXml = new SwingOutXml();
         final Container topLevelContainer = swingOutXml.processRootNodeForCreate(rootElement, swingClass, paramConstructorArgs);
-        swingOutXml.setContext(topLevelContainer);
-        swingOutXml.topLevelContainer = topLevelContainer;
         swingOutXml.treeTraverse(rootElement);
+        long start;
         if (topLevelContainer instanceof Window) {
+            start = swingOutXml.startTiming();
             ((Window) topLevelContainer).pack();
+            swingOutXml.reportTiming(CreationPhase.PACK, null, start);
         }
         if (topLevelContainer instanceof PostSetup) {
+            start = swingOutXml.startTiming();
             ((PostSetup) topLevelContainer).afterCreate();
+            swingOutXml.reportTiming(CreationPhase.AFTER_CREATE, null, start);
+        }
+        swingOutXml.reportTiming(CreationPhase.TOTAL, null, createStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setWindow(swingOutXml.template, swingClass, false);
+            event.commit();
         }
         return swingClass.cast(topLevelContainer);
     }
@@ -250,19 +357,31 @@ public class SwingOutXml {
         if (swingOutContainer == null) {
             throw new IllegalArgumentException("has to implement SwingOutContainer");
         }
-        final String templateFile = swingOutContainer.template();
-        final Document xmlDoc = new XmlLoader().load(templateFile);
-        final Element rootElement = xmlDoc.getDocumentElement();
+        final SwingOutXml swingOutXml = new SwingOutXml(swingOutContainer.template());
+        final WindowCreateEvent event = new WindowCreateEvent();
+        event.begin();
+        final long renderStart = swingOutXml.startTiming();
+        final Element rootElement = swingOutXml.loadTemplate();
 
-        final SwingOutXml swingOutXml = new SwingOutXml();
+        long start = swingOutXml.startTiming();
         swingOutXml.setContext(object);
+        swingOutXml.reportTiming(CreationPhase.SET_CONTEXT, null, start);
         swingOutXml.topLevelContainer = swingOutXml.processRootNode(rootElement, paramConstructorArgs);
         swingOutXml.treeTraverse(rootElement);
+        start = swingOutXml.startTiming();
         ((Window) swingOutXml.topLevelContainer).pack();
+        swingOutXml.reportTiming(CreationPhase.PACK, null, start);
+        swingOutXml.reportTiming(CreationPhase.TOTAL, null, renderStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setWindow(swingOutXml.template, object.getClass(), true);
+            event.commit();
+        }
         return swingOutXml.topLevelContainer;
     }
 
     private Container processRootNodeForCreate(final Element rootElement, final Class<? extends Container> swingClass, final Object... paramConstructorArgs) throws InvocationTargetException {
+        long start = startTiming();
         final List<String> constructorArgString = DomUtils.getAttributeAsList(A_CONSTRUCTOR_ARGS, rootElement);
         final Class<?>[] xmlConstructorClasses = new Class<?>[constructorArgString.size()];
         final Object[] xmlConstructorArgs = new Object[constructorArgString.size()];
@@ -305,13 +424,22 @@ public class SwingOutXml {
             //  shouldn't be a problem, but will probably be refactored out when instantiation is dependent on XML root element
             throw new IllegalArgumentException(e);
         }
+        reportTiming(CreationPhase.INSTANTIATE, rootElement, start);
+        // the root container is the context, so it has to be set before root attributes can resolve fields or bind
+        start = startTiming();
+        setContext(container);
+        reportTiming(CreationPhase.SET_CONTEXT, null, start);
+        topLevelContainer = container;
+        start = startTiming();
         setLayout(rootElement, container);
-        setTitle(rootElement, container);
-        setPreferredSize(rootElement, container);
+        reportTiming(CreationPhase.LAYOUT, rootElement, start);
+        start = startTiming();
+        applyAttributes(rootElement, container);
         final Boolean visible = DomUtils.getAttribute(A_VISIBLE, rootElement, Boolean.class);
         if (visible != null) {
             container.setVisible(visible);
         }
+        reportTiming(CreationPhase.ATTRIBUTES, rootElement, start);
         return container;
     }
 
@@ -320,25 +448,40 @@ public class SwingOutXml {
         // todo: use constructor args
         final Container container = createContainer(rootElement);
 
+        long start = startTiming();
         if (container instanceof Window) {
             ((Window) container).pack();
         }
+        reportTiming(CreationPhase.PACK, null, start);
+        start = startTiming();
         final Boolean visible = DomUtils.getAttribute(A_VISIBLE, rootElement, Boolean.class);
         if (visible != null) {
             container.setVisible(visible);
         }
+        reportTiming(CreationPhase.ATTRIBUTES, rootElement, start);
 
+        start = startTiming();
         setFields(rootElement, container);
         addListeners(rootElement, container);
+        reportTiming(CreationPhase.BIND, rootElement, start);
+        start = startTiming();
         setLayout(rootElement, container);
-        setTitle(rootElement, container);
+        reportTiming(CreationPhase.LAYOUT, rootElement, start);
         return container;
     }
 
     private void treeTraverse(final Element rootElement) throws SAXException, IOException, InvocationTargetException,
             NoSuchMethodException, ParseException {
+        treeTraverse(rootElement, topLevelContainer);
+    }
+
+    /**
+     * Creates the components for the descendants of element, which was already turned into container
+     */
+    private void treeTraverse(final Element element, final Container container) throws SAXException, IOException,
+            InvocationTargetException, NoSuchMethodException, ParseException {
         final Deque<PairedTreeNode> queue = new LinkedList<>();
-        queue.addLast(new PairedTreeNode(rootElement, topLevelContainer));
+        queue.addLast(new PairedTreeNode(element, container));
         while (!queue.isEmpty()) {
             final PairedTreeNode pairedNode = queue.removeFirst();
             validateXml(pairedNode.node);
@@ -381,7 +524,14 @@ public class SwingOutXml {
         } else {
             return null;
         }
+        if (E_REPEAT.equals(childElement.getTagName())) {
+            processRepeat(parentContainer, childElement);
+            return null;
+        }
+        final ElementProcessEvent event = new ElementProcessEvent();
+        event.begin();
         final JComponent jComponent = createJComponent(childElement);
+        long start = startTiming();
         final String constraintsString = DomUtils.getAttribute(A_CONSTRAINTS, childElement);
         Object constraints = null;
         if (constraintsString != null) {
@@ -395,36 +545,62 @@ public class SwingOutXml {
         }
         final Boolean add = DomUtils.getAttribute(A_ADD, childElement, Boolean.class);
         if (add == null || add) {
-            parentContainer.add(jComponent, constraints);
+            parentContainer.add(wrapForCache(childElement, jComponent), constraints);
         }
+        reportTiming(CreationPhase.LAYOUT, childElement, start);
+        start = startTiming();
         setFields(childElement, jComponent);
         addListeners(childElement, jComponent);
         setAction(childElement, jComponent);
         setButtonGroup(childElement, jComponent);
         setCellRenderer(childElement, jComponent);
+        subscribeSinks(childElement, jComponent);
+        reportTiming(CreationPhase.BIND, childElement, start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setElement(template, childElement, jComponent.getClass());
+            event.commit();
+        }
         return jComponent;
     }
 
+    /**
+     * Wraps a component whose element has cache="image" in a JLayer that paints it from an offscreen image
+     * @param element    the XML element that was used to instantiate the component
+     * @param jComponent the component
+     * @return the component to add to the parent: the JLayer or jComponent itself
+     */
+    private static JComponent wrapForCache(final Element element, final JComponent jComponent) {
+        final String cache = DomUtils.getAttribute(A_CACHE, element);
+        if (cache == null || "none".equals(cache.trim())) {
+            return jComponent;
+        }
+        if (!"image".equals(cache.trim())) {
+            throw new IllegalArgumentException(String.format("%s attr must be image or none: %s", A_CACHE, DomUtils.toString(element)));
+        }
+        return ImageCacheLayerUI.wrap(jComponent);
+    }
+
+    /**
+     * @param element an element of the template
+     * @return true if element or one of its ancestors has stable-layout="true"
+     */
+    private static boolean isStableLayout(final Element element) {
+        for (Node node = element; node instanceof Element; node = node.getParentNode()) {
+            if (Boolean.TRUE.equals(DomUtils.getAttribute(A_STABLE_LAYOUT, (Element) node, Boolean.class))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     private Container createContainer(final Element element) throws SAXException, IOException, InvocationTargetException,
             NoSuchMethodException, ParseException {
+        final long start = startTiming();
         final String containerName = element.getTagName();
-        final String className = NameUtils.getClassNameForElement(containerName);
-        final Class<? extends Container> containerClass, finalContainerClass;
-        if (containerClasses.containsKey(className)) {
-            containerClass = containerClasses.get(className);
-        } else {
-            final Class customClass;
-            try {
-                customClass = Class.forName(className);
-            } catch (final ClassNotFoundException cnfe) {
-                throw new IllegalArgumentException(String.format("Unable to find class %s from XML: %s", className, DomUtils.toString(element)), cnfe);
-            }
-            if (!Container.class.isAssignableFrom(customClass)) {
-                throw new IllegalArgumentException("custom element doesn't extend JComponent");
-            }
-            containerClass = customClass;
-        }
+        final ComponentFactory<?> factory = getFactory(element, containerName);
+        final Class<? extends Container> containerClass = factory.getComponentClass(), finalContainerClass;
         final Container container;
         if (containerClass == Container.class) {
             final Set<Field> fields = findAssociatedFields(element);
@@ -450,6 +626,8 @@ public class SwingOutXml {
         if (swingOutContainer != null) {
             // todo: pass constructor-args param to create
             container = SwingOutXml.create(finalContainerClass);
+        } else if (finalContainerClass == containerClass) {
+            container = factory.create();
         } else {
             try {
                 container = finalContainerClass.newInstance();
@@ -467,12 +645,10 @@ public class SwingOutXml {
             }
             idMap.put(id, container);
         }
-        setEnabled(element, container);
-        setTitle(element, container);
-//        setLayout(element, container);
-//        setText(element, container);
-        setPreferredSize(element, container);
-        setEditable(element, container);
+        reportTiming(CreationPhase.INSTANTIATE, element, start);
+        final long attributesStart = startTiming();
+        applyAttributes(element, container);
+        reportTiming(CreationPhase.ATTRIBUTES, element, attributesStart);
         return container;
     }
 
@@ -489,23 +665,13 @@ public class SwingOutXml {
      */
     @SuppressWarnings("unchecked")
     private JComponent createJComponent(final Element xmlElement) throws SAXException, IOException, InvocationTargetException, ParseException, NoSuchMethodException {
+        long start = startTiming();
         final String componentName = xmlElement.getLocalName();
-        final String className = NameUtils.getClassNameForElement(componentName);
-        final Class<? extends JComponent> componentClass, finalComponentClass;
-        if (componentClasses.containsKey(className)) {
-            componentClass = componentClasses.get(className);
-        } else {
-            final Class customClass;
-            try {
-                customClass = Class.forName(className);
-            } catch (final ClassNotFoundException cnfe) {
-                throw new IllegalArgumentException(String.format("Unable to find class %s from XML: %s", className, DomUtils.toString(xmlElement)), cnfe);
-            }
-            if (!JComponent.class.isAssignableFrom(customClass)) {
-                throw new IllegalArgumentException("custom element doesn't extend JComponent");
-            }
-            componentClass = customClass;
+        final ComponentFactory<?> factory = getFactory(xmlElement, componentName);
+        if (!JComponent.class.isAssignableFrom(factory.getComponentClass())) {
+            throw new IllegalArgumentException("custom element doesn't extend JComponent");
         }
+        final Class<? extends JComponent> componentClass = (Class<? extends JComponent>) factory.getComponentClass(), finalComponentClass;
         final JComponent jComponent;
         if (componentClass == JComponent.class) {
             final Set<Field> fields = findAssociatedFields(xmlElement);
@@ -524,6 +690,9 @@ public class SwingOutXml {
                 }
             }
             finalComponentClass = concreteComponentClass;
+        } else if (componentClass == JPanel.class && isStableLayout(xmlElement)) {
+            // the panel remembers its layout results itself, so getLayout() is still what the template set
+            finalComponentClass = MemoizingPanel.class;
         } else {
             finalComponentClass = componentClass;
         }
@@ -535,7 +704,9 @@ public class SwingOutXml {
             try {
                 // todo: refactor code out of processRootNodeForCreate() to get constructor
                 final List<String> constructorArgStrings = DomUtils.getAttributeAsList(A_CONSTRUCTOR_ARGS, xmlElement);
-                if (constructorArgStrings.isEmpty()) {
+                if (constructorArgStrings.isEmpty() && finalComponentClass == componentClass) {
+                    jComponent = (JComponent) factory.create();
+                } else if (constructorArgStrings.isEmpty()) {
                     jComponent = finalComponentClass.newInstance();
                 } else {
                     final Class<?>[] argClassesArray = new Class<?>[constructorArgStrings.size()];
@@ -563,28 +734,72 @@ public class SwingOutXml {
             }
             idMap.put(id, jComponent);
         }
-        setEnabled(xmlElement, jComponent);
-        setTitle(xmlElement, jComponent);
-        setLayout(xmlElement, jComponent);
+        reportTiming(CreationPhase.INSTANTIATE, xmlElement, start);
+        start = startTiming();
+        applyAttributes(xmlElement, jComponent);
         setText(xmlElement, jComponent);
-        setPreferredSize(xmlElement, jComponent);
-        setEditable(xmlElement, jComponent);
+        reportTiming(CreationPhase.ATTRIBUTES, xmlElement, start);
+        start = startTiming();
+        setLayout(xmlElement, jComponent);
+        reportTiming(CreationPhase.LAYOUT, xmlElement, start);
         return jComponent;
     }
 
+    /**
+     * Finds the factory for an element, with error messages that include the XML
+     */
+    private static ComponentFactory<?> getFactory(final Element element, final String tagName) {
+        try {
+            return ComponentFactoryRegistry.getFactory(tagName);
+        } catch (final ClassNotFoundException cnfe) {
+            throw new IllegalArgumentException(String.format("Unable to find class %s from XML: %s",
+                NameUtils.getClassNameForElement(tagName), DomUtils.toString(element)), cnfe);
+        }
+    }
+
     private static void validateXml(final Element node) {
         // todo
     }
 
     /**
-     * Enables/disables the container according to the attribute on the element
-     * @param element the XML element containing text
-     * @param container the component to enable/disable
+     * Applies each attribute present on the element with its handler from {@link AttributeHandlerRegistry}. Attributes
+     * that are reserved by SwingOutXml are skipped here and handled elsewhere.
+     * @param element   the XML element that was used to instantiate the container
+     * @param container the container to apply attributes to
+     * @throws IllegalArgumentException if the element has an unknown attribute
      */
-    private void setEnabled(final Element element, final Container container) {
-        final Boolean enabled = DomUtils.getAttribute(A_ENABLED, element, Boolean.class);
-        if (enabled != null) {
-            container.setEnabled(enabled);
+    private void applyAttributes(final Element element, final Container container) {
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Node attribute = attributes.item(i);
+            final String name = attribute.getNodeName();
+            if (name.startsWith("xmlns")) {
+                continue;
+            }
+            if (A_STYLE.equals(name)) {
+                applyStyle(element, container, attribute.getNodeValue());
+                continue;
+            }
+            final AttributeHandler handler = AttributeHandlerRegistry.get(name);
+            if (handler == null) {
+                throw new IllegalArgumentException(String.format("Unknown attribute %s in element %s", name, DomUtils.toString(element)));
+            }
+            handler.apply(context, element, container, attribute.getNodeValue().trim());
+        }
+    }
+
+    /**
+     * Applies the styles named in a style attribute from the template's {@link StyleSheet}
+     * @param element   the XML element that was used to instantiate the container
+     * @param container the container to style
+     * @param value     value of the style attribute
+     */
+    private void applyStyle(final Element element, final Container container, final String value) {
+        final String[] names = value.trim().split("\\s*,\\s*");
+        try {
+            styleSheet.apply(names, container);
+        } catch (final IllegalArgumentException iae) {
+            throw new IllegalArgumentException(String.format("%s in element %s", iae.getMessage(), DomUtils.toString(element)));
         }
     }
 
@@ -605,25 +820,6 @@ public class SwingOutXml {
         }
     }
 
-    /**
-     * Sets the title of the top-level container if applicable. The title comes from the title attribute of the rootElement.
-     * @param rootElement the XML root element of the template
-     */
-    private void setTitle(final Element rootElement, final Container container) {
-        final String title = DomUtils.getAttribute(A_TITLE, rootElement);
-        if (title == null) {
-            return;
-        }
-        if (container instanceof JFrame) {
-            ((JFrame) container).setTitle(title);
-        } else if (container instanceof JDialog) {
-            ((JDialog) container).setTitle(title);
-        } else {
-            // todo: add more context
-            throw new IllegalArgumentException(String.format("The title attribute is not supported on %s elements", rootElement.getTagName()));
-        }
-    }
-
     /**
      * Sets the layout on the container to one described by the attributes on element
      * @param element   the XML element that was used to instantiate the JComponent
@@ -652,31 +848,6 @@ public class SwingOutXml {
         }
     }
 
-    /**
-     * Sets the preferred size of the container according to the attribute on the element
-     * @param element   the XML element that was used to instantiate the JComponent
-     * @param container container to set preferred size on
-     */
-    private void setPreferredSize(final Element element, final Container container) {
-        final String preferredSizeString = DomUtils.getAttribute(A_PREFERRED_SIZE, element);
-        if (preferredSizeString != null) {
-            final String[] dimensions = preferredSizeString.split("\\s*,\\s*");
-            if (dimensions.length != 2) {
-                throw new IllegalArgumentException(String.format("Error parsing %s attribute in element %s", A_PREFERRED_SIZE, DomUtils.toString(element)));
-            }
-            final int width = Integer.parseInt(dimensions[0]);
-            final int height = Integer.parseInt(dimensions[1]);
-            container.setPreferredSize(new Dimension(width, height));
-        }
-    }
-
-    private void setEditable(final Element element, final Container container) {
-        final Boolean editable = DomUtils.getAttribute(A_EDITABLE, element, Boolean.class);
-        if (container instanceof JTextComponent && editable != null) {
-            ((JTextComponent) container).setEditable(editable);
-        }
-    }
-
     /**
      * Finds the field or fields specified by an XML element's attribute or in an annotation. When the annotationType is
      * Listener, the key of the Pair in each set element could be a string representing a function name that is used to
@@ -786,10 +957,11 @@ public class SwingOutXml {
     }
 
     /**
-     * Adds all specified listeners to the component
+     * Adds all specified listeners to the component. The functions used to add them are looked up in
+     * {@link ListenerAdderRegistry}, which also resolves any custom addFunctions. Mouse and key listeners whose
+     * \@{@link Listener} is delegated are bound in the top-level container's {@link DelegatingEventDispatcher} instead.
      * @param xmlElement XML element describing the component
      * @param component the component to add listeners to
-     * todo: throw different exceptions when ClassCastException happens for better error messages
      */
     private void addListeners(final Element xmlElement, final JComponent component) throws InvocationTargetException {
         final Set<Pair<String, Field>> listenerFields = findAssociatedListeners(xmlElement);
@@ -807,80 +979,46 @@ public class SwingOutXml {
                 // impossible
                 continue;
             }
+            final ListenerBindEvent event = new ListenerBindEvent();
+            event.begin();
             boolean added = false;
-            // todo: use getClass or isAssignableFrom instead since instanceof behaves weirdly with some of these Mouse ones
-            if (listener instanceof MouseListener) {
-                component.addMouseListener((MouseListener) listener);
-                added = true;
-            }
-            if (listener instanceof MouseMotionListener) {
-                component.addMouseMotionListener((MouseMotionListener) listener);
-                added = true;
-            }
-            if (listener instanceof MouseWheelListener) {
-                component.addMouseWheelListener((MouseWheelListener) listener);
-                added = true;
-            }
-            if (listener instanceof ActionListener) {
-                try {
-                    ((AbstractButton) component).addActionListener((ActionListener) listener);
-                } catch (final ClassCastException cce) {
-                    throw new IllegalArgumentException(String.format("%s is not an AbstractButton and therefore cannot accept the ActionListener %s",
-                        component, field));
-                }
-                added = true;
-            }
-            if (listener instanceof KeyListener) {
-                component.addKeyListener((KeyListener) listener);
-                added = true;
-            }
-            if (listener.getClass() == TreeWillExpandListener.class) {
-                try {
-                    ((JTree) component).addTreeWillExpandListener((TreeWillExpandListener) listener);
-                } catch (final ClassCastException cce) {
-                    throw new IllegalArgumentException(String.format("%s is not a JTree and therefore cannot accept the TreeWillExpandListener %s",
-                        component, field));
-                }
-                added = true;
-            }
-            if (listener instanceof TreeExpansionListener) {
-                try {
-                    ((JTree) component).addTreeExpansionListener((TreeExpansionListener) listener);
-                } catch (final ClassCastException cce) {
-                    throw new IllegalArgumentException(String.format("%s is not a JTree and therefore cannot accept the TreeExpansionListener %s",
-                        component, field));
-                }
-                added = true;
-            }
-            if (listener instanceof ListSelectionListener) {
-                try {
-                    ((JList) component).addListSelectionListener((ListSelectionListener) listener);
-                } catch (final ClassCastException cce) {
-                    throw new IllegalArgumentException(String.format("%s is not a JList and therefore cannot accept the ListSelectionListener %s",
-                        component, field));
-                }
-                added = true;
-            }
-            if (!functionName.isEmpty()) {
-                Method function = null;
-                final Method[] allFunctions = component.getClass().getDeclaredMethods();
-                for (final Method m: allFunctions) {
-                    if (m.getName().equals(functionName)) {
-                        function = m;
-                        try {
-                            function.invoke(component, listener);
-                            added = true;
-                        } catch (final IllegalArgumentException iae) {
-                            // wrong overloaded function: keep trying
-                        } catch (final IllegalAccessException iae) {
-                            throw new IllegalArgumentException(String.format("addFunction for listener is not public: %s", functionName), iae);
+            if (listener != null) {
+                final Listener annotation = field.getDeclaredAnnotation(Listener.class);
+                final boolean delegated = annotation != null && annotation.delegated();
+                final WeakListener weakListener = annotation != null && annotation.weak() ? WeakListener.wrap(listener) : null;
+                final EventListener registered = weakListener != null ? (EventListener) weakListener.getProxy() : listener;
+                final CoalescingMouseDispatcher dispatcher = createMouseDispatcher(field, registered);
+                for (final ListenerAdderRegistry.Adder adder: ListenerAdderRegistry.getAdders(component.getClass(), listener.getClass())) {
+                    if (!adder.isSupported()) {
+                        throw new IllegalArgumentException(String.format("%s cannot accept the %s %s",
+                            component, adder.getListenerType().getSimpleName(), field));
+                    }
+                    final EventListener target = dispatcher != null && adder.getListenerType().isInstance(dispatcher) ? dispatcher : registered;
+                    if (delegated && DelegatingEventDispatcher.supports(adder.getListenerType())) {
+                        final DelegatingEventDispatcher delegatingDispatcher = DelegatingEventDispatcher.forRoot(topLevelContainer);
+                        delegatingDispatcher.bind(component, adder.getListenerType(), target);
+                        if (weakListener != null) {
+                            weakListener.onCollected(() -> { delegatingDispatcher.unbind(component, adder.getListenerType(), target); });
                         }
+                    } else {
+                        adder.add(component, target);
+                        removeWhenCollected(weakListener, adder, component, target);
                     }
+                    added = true;
                 }
-                if (function == null) {
-                    throw new IllegalArgumentException(String.format("No function %s in %s", functionName, component.getClass()));
+                if (!functionName.isEmpty()) {
+                    final ListenerAdderRegistry.Adder adder = ListenerAdderRegistry.getAdder(component.getClass(), listener.getClass(), functionName);
+                    adder.add(component, registered);
+                    removeWhenCollected(weakListener, adder, component, registered);
+                    added = true;
                 }
             }
+            event.end();
+            if (event.shouldCommit()) {
+                event.setElement(template, xmlElement, component.getClass());
+                event.setListenerField(field.getName());
+                event.commit();
+            }
             if (!added) {
                 //todo logger
                 System.out.println(String.format("Couldn't add listener %s from element %s", listener, DomUtils.toString(xmlElement)));
@@ -889,7 +1027,61 @@ public class SwingOutXml {
     }
 
     /**
-     * Sets the action on the component to an action specified by the XML element or an annotation
+     * Makes a weak listener's proxy remove itself from the component once the listener has been collected
+     * @param weakListener the weak listener, or null if the listener isn't weak
+     * @param adder        the adder that added the proxy
+     * @param component    the component the proxy was added to
+     * @param registered   what was added to the component: the proxy, or a dispatcher wrapping it
+     */
+    private static void removeWhenCollected(final WeakListener weakListener, final ListenerAdderRegistry.Adder adder,
+            final JComponent component, final EventListener registered) {
+        if (weakListener != null && adder.isRemovable()) {
+            // the action is reachable from wherever the proxy is registered, which can outlive the component when a
+            // custom add function registers it elsewhere, so it mustn't keep the component reachable
+            final WeakReference<JComponent> componentReference = new WeakReference<>(component);
+            weakListener.onCollected(() -> {
+                final JComponent c = componentReference.get();
+                if (c == null) {
+                    return;
+                }
+                try {
+                    adder.remove(c, registered);
+                } catch (final InvocationTargetException ite) {
+                    throw new IllegalStateException(String.format("Couldn't remove %s from %s", registered, c), ite.getCause());
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates a dispatcher that throttles or coalesces mouse events for the listener if the \@{@link Listener} on its
+     * field asks for it. The dispatcher is added to the component in place of the listener for the mouse listener
+     * interfaces; the field keeps referring to the original listener.
+     * @param field    the field that the listener came from
+     * @param listener the listener being added
+     * @return the dispatcher, or null if the listener should be added as-is
+     */
+    private static CoalescingMouseDispatcher createMouseDispatcher(final Field field, final EventListener listener) {
+        final Listener annotation = field.getDeclaredAnnotation(Listener.class);
+        if (annotation == null || (annotation.throttle() <= 0 && annotation.coalesce() <= 0)) {
+            return null;
+        }
+        if (annotation.throttle() > 0 && annotation.coalesce() > 0) {
+            throw new IllegalArgumentException(String.format("throttle and coalesce can't both be set on %s", field));
+        }
+        if (!(listener instanceof MouseMotionListener) && !(listener instanceof MouseWheelListener)) {
+            throw new IllegalArgumentException(String.format("throttle and coalesce only apply to MouseMotionListeners and MouseWheelListeners: %s", field));
+        }
+        if (annotation.throttle() > 0) {
+            return new CoalescingMouseDispatcher(listener, CoalescingMouseDispatcher.Mode.THROTTLE, annotation.throttle(), annotation.latestOnly());
+        } else {
+            return new CoalescingMouseDispatcher(listener, CoalescingMouseDispatcher.Mode.COALESCE, annotation.coalesce(), annotation.latestOnly());
+        }
+    }
+
+    /**
+     * Sets the action on the component to an action specified by the XML element or an annotation. If the action's
+     * \@{@link ComponentAction} is async, the action is wrapped in an {@link AsyncAction}.
      * @param xmlElement XML element that was used to instantiate the JComponent
      * @param component the button to set an action on
      */
@@ -899,7 +1091,13 @@ public class SwingOutXml {
             final Field field = findAssociatedAction(xmlElement);
             if (field != null) {
                 try {
-                    button.setAction((Action) field.get(context));
+                    final Action action = (Action) field.get(context);
+                    final ComponentAction componentAction = field.getDeclaredAnnotation(ComponentAction.class);
+                    if (action != null && componentAction != null && componentAction.async()) {
+                        button.setAction(new AsyncAction(action, ActionExecutors.get(componentAction.executor())));
+                    } else {
+                        button.setAction(action);
+                    }
                     // todo: override action name with xml node value (maybe)
                 } catch (final IllegalAccessException ignored) {}
             }
@@ -927,12 +1125,123 @@ public class SwingOutXml {
             final Field rendererField = findAssociatedCellRenderer(element);
             if (rendererField != null) {
                 try {
-                    ((JList) component).setCellRenderer((ListCellRenderer) rendererField.get(context));
+                    final ListCellRenderer renderer = (ListCellRenderer) rendererField.get(context);
+                    final CellRenderer cellRenderer = rendererField.getDeclaredAnnotation(CellRenderer.class);
+                    if (renderer != null && cellRenderer != null && cellRenderer.cached()) {
+                        CachingListCellRenderer.install((JList) component, renderer, cellRenderer.cacheSize());
+                    } else {
+                        ((JList) component).setCellRenderer(renderer);
+                    }
                 } catch (final IllegalAccessException ignored) {}
             }
         }
     }
 
+    /**
+     * Sets up a &lt;repeat&gt; element: its only child element is the row template, which is instantiated for each item
+     * of the collection named by the items attribute, and the rows are kept in sync with it by a {@link Repeater}
+     * @param parentContainer the container that the rows are put in
+     * @param element         the repeat element
+     */
+    @SuppressWarnings("unchecked")
+    private void processRepeat(final Container parentContainer, final Element element) throws ParseException {
+        Element rowElement = null;
+        final NodeList childNodes = element.getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            final Node child = childNodes.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                if (rowElement != null) {
+                    throw new IllegalArgumentException(String.format("<%s> must have exactly one child element: %s", E_REPEAT,
+                        DomUtils.toString(element)));
+                }
+                rowElement = (Element) child;
+            }
+        }
+        if (rowElement == null) {
+            throw new IllegalArgumentException(String.format("<%s> must have exactly one child element: %s", E_REPEAT,
+                DomUtils.toString(element)));
+        }
+        final NodeList descendants = rowElement.getElementsByTagName("*");
+        for (int i = -1; i < descendants.getLength(); i++) {
+            final Element e = i < 0 ? rowElement : (Element) descendants.item(i);
+            if (e.hasAttribute(A_ID)) {
+                throw new IllegalArgumentException(String.format("Elements in a <%s> template can't have IDs: %s", E_REPEAT,
+                    DomUtils.toString(e)));
+            }
+        }
+        final String itemsName = DomUtils.getAttribute(A_ITEMS, element);
+        final Field itemsField = itemsName != null ? ReflectionUtils.getDeclaredFieldHierarchical(context.getClass(), itemsName.trim()) : null;
+        if (itemsField == null) {
+            throw new IllegalArgumentException(String.format("%s attr must name a field of %s: %s", A_ITEMS,
+                context.getClass().getName(), DomUtils.toString(element)));
+        }
+        final Object items;
+        try {
+            items = itemsField.get(context);
+        } catch (final IllegalAccessException iae) {
+            throw new IllegalArgumentException(iae);
+        }
+        final String constraintsString = DomUtils.getAttribute(A_CONSTRAINTS, rowElement);
+        final Object constraints = constraintsString == null ? null :
+            ReflectionUtils.parseToken(context, null, idMap, awtPackages, constraintsString).getValue();
+        // rows are inserted by the Repeater
+        rowElement.setAttribute(A_ADD, "false");
+        final Element rowTemplate = rowElement;
+        final Repeater repeater = new Repeater(parentContainer, constraints, DomUtils.getAttribute(A_KEY, element), () -> {
+            try {
+                final JComponent row = processNode(parentContainer, rowTemplate);
+                treeTraverse(rowTemplate, row);
+                return row;
+            } catch (final SAXException | IOException | InvocationTargetException | NoSuchMethodException | ParseException e) {
+                throw new IllegalArgumentException(String.format("Unable to create a row from %s", DomUtils.toString(rowTemplate)), e);
+            }
+        });
+        if (items instanceof BoundValue) {
+            repeater.follow((BoundValue<Object>) items, (final Object value) -> { return toIterable(value, element); });
+        } else {
+            repeater.update(toIterable(items, element));
+        }
+    }
+
+    private static Iterable<?> toIterable(final Object items, final Element element) {
+        if (items == null || items instanceof Iterable) {
+            return (Iterable<?>) items;
+        } else if (items instanceof Object[]) {
+            return Arrays.asList((Object[]) items);
+        }
+        throw new IllegalArgumentException(String.format("%s must be an Iterable, an array, or a BoundValue of one: %s",
+            A_ITEMS, DomUtils.toString(element)));
+    }
+
+    /**
+     * Subscribes the component to the publishers specified by the XML element's publishers attribute or by
+     * \@{@link Sink} annotations
+     * @param element   XML element that was used to instantiate the JComponent
+     * @param component the component to show published items in
+     */
+    @SuppressWarnings("unchecked")
+    private void subscribeSinks(final Element element, final JComponent component) {
+        for (final Pair<String, Field> pair: findAssociatedFields(element, Sink.class, A_PUBLISHERS)) {
+            final Field field = pair.getValue();
+            final Object publisher;
+            try {
+                publisher = field.get(context);
+            } catch (final IllegalAccessException iae) {
+                continue;
+            }
+            if (!(publisher instanceof Flow.Publisher)) {
+                throw new IllegalArgumentException(String.format("%s.%s is not a Flow.Publisher: %s", context.getClass().getName(),
+                    field.getName(), DomUtils.toString(element)));
+            }
+            final Sink sink = field.getDeclaredAnnotation(Sink.class);
+            try {
+                FlowSink.subscribe((Flow.Publisher<Object>) publisher, component, pair.getKey(), sink != null ? sink.buffer() : 256);
+            } catch (final IllegalArgumentException iae) {
+                throw new IllegalArgumentException(String.format("%s in element %s", iae.getMessage(), DomUtils.toString(element)));
+            }
+        }
+    }
+
     /**
      * Contains a node from an XML document and a node from a Swing GUI structure.
      * These are used for cloning an XML DOM tree into a Swing GUI tree with the same parent-child relationships.
@@ -0,0 +1,75 @@
+package com.adashrod.swingoutxml.action;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named executors for running actions bound with \@{@link com.adashrod.swingoutxml.annotation.ComponentAction}(async = true).
+ * The name in {@link com.adashrod.swingoutxml.annotation.ComponentAction#executor()} is looked up here; an empty name
+ * uses the default executor. The default executor runs each action in a virtual thread if the JVM supports them,
+ * otherwise in a cached pool of daemon threads.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class ActionExecutors {
+    private static final Map<String, ExecutorService> executors = new ConcurrentHashMap<>();
+    private static volatile ExecutorService defaultExecutor;
+
+    /**
+     * Registers an executor under a name. Replaces any executor previously registered with that name.
+     * @param name     name to use in \@ComponentAction(executor = name)
+     * @param executor the executor
+     */
+    public static void register(final String name, final ExecutorService executor) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("executor name can't be empty");
+        }
+        executors.put(name.trim(), executor);
+    }
+
+    /**
+     * @param name an executor name, or "" for the default
+     * @return the executor
+     * @throws IllegalArgumentException if no executor is registered with that name
+     */
+    public static ExecutorService get(final String name) {
+        final String trimmedName = name.trim();
+        if (trimmedName.isEmpty()) {
+            return getDefault();
+        }
+        final ExecutorService executor = executors.get(trimmedName);
+        if (executor == null) {
+            throw new IllegalArgumentException(String.format("No action executor registered with the name \"%s\"", trimmedName));
+        }
+        return executor;
+    }
+
+    private static ExecutorService getDefault() {
+        if (defaultExecutor == null) {
+            synchronized (ActionExecutors.class) {
+                if (defaultExecutor == null) {
+                    defaultExecutor = createDefault();
+                }
+            }
+        }
+        return defaultExecutor;
+    }
+
+    private static ExecutorService createDefault() {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final ReflectiveOperationException | UnsupportedOperationException e) {
+            // no virtual threads in this JVM
+            final AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool((final Runnable r) -> {
+                final Thread thread = new Thread(r, String.format("swingoutxml-action-%d", threadCount.incrementAndGet()));
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
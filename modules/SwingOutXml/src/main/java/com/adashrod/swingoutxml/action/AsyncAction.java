@@ -0,0 +1,178 @@
+package com.adashrod.swingoutxml.action;
+
+import javax.swing.Action;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * An Action that wraps another Action and runs it off of the EDT. This is what SwingOutXml sets on buttons when the
+ * action is bound with \@{@link com.adashrod.swingoutxml.annotation.ComponentAction}(async = true).
+ *
+ * When the action is performed, the component that fired it is disabled and the wrapped action is run on the executor.
+ * If the wrapped action implements {@link BackgroundTask}, runInBackground() is run instead of actionPerformed(), and
+ * the result is delivered to done() on the EDT. Afterwards the component is re-enabled on the EDT (if the wrapped
+ * action is still enabled). An exception thrown by a wrapped action that isn't a BackgroundTask is rethrown on the EDT,
+ * so it goes to the EDT's uncaught exception handler like it would if the action were run synchronously.
+ *
+ * Running tasks are cancelled, with interruption, when the window containing the component is closed, or when
+ * {@link AsyncAction#cancel()} is called. Cancelled tasks don't deliver results.
+ *
+ * All properties, including enabled, are those of the wrapped action, so buttons using this look and behave the same as
+ * they would with the wrapped action.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class AsyncAction implements Action {
+    private final Action action;
+    private final ExecutorService executor;
+    private final Collection<Future<?>> running = ConcurrentHashMap.newKeySet();
+    private final Collection<Window> watchedWindows = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param action   the action to run
+     * @param executor executor to run it on
+     */
+    public AsyncAction(final Action action, final ExecutorService executor) {
+        this.action = action;
+        this.executor = executor;
+    }
+
+    /**
+     * @return the wrapped action
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * Cancels all of the running tasks, interrupting their threads
+     */
+    public void cancel() {
+        for (final Future<?> future: running) {
+            future.cancel(true);
+        }
+        running.clear();
+    }
+
+    @Override
+    public void actionPerformed(final ActionEvent e) {
+        final Component source = e.getSource() instanceof Component ? (Component) e.getSource() : null;
+        if (source != null) {
+            source.setEnabled(false);
+            watchWindow(SwingUtilities.getWindowAncestor(source));
+        }
+        final FutureTask<Runnable> futureTask = new FutureTask<Runnable>(() -> { return runInBackground(e); }) {
+            @Override
+            protected void done() {
+                // called after completion or cancellation, even if cancelled before it started
+                SwingUtilities.invokeLater(() -> {
+                    running.remove(this);
+                    try {
+                        if (!isCancelled()) {
+                            final Runnable delivery = get();
+                            if (delivery != null) {
+                                delivery.run();
+                            }
+                        }
+                    } catch (final ExecutionException ee) {
+                        // rethrown on the EDT, where an exception from a synchronous action would have gone
+                        throw propagate(ee.getCause());
+                    } catch (final InterruptedException ignored) {
+                    } finally {
+                        if (source != null) {
+                            source.setEnabled(action.isEnabled());
+                        }
+                    }
+                });
+            }
+        };
+        running.add(futureTask);
+        executor.execute(futureTask);
+    }
+
+    private Runnable runInBackground(final ActionEvent e) {
+        if (action instanceof BackgroundTask) {
+            return runTask((BackgroundTask<?>) action, e);
+        }
+        action.actionPerformed(e);
+        return null;
+    }
+
+    /**
+     * Runs the background part of the task and returns the part that needs to be run on the EDT
+     */
+    private static <T> Runnable runTask(final BackgroundTask<T> task, final ActionEvent e) {
+        try {
+            final T result = task.runInBackground(e);
+            return () -> { task.done(result); };
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (final Exception ex) {
+            return () -> { task.failed(ex); };
+        }
+    }
+
+    private static RuntimeException propagate(final Throwable throwable) {
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        return new IllegalStateException(throwable);
+    }
+
+    private void watchWindow(final Window window) {
+        if (window != null && watchedWindows.add(window)) {
+            window.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosed(final WindowEvent we) {
+                    cancel();
+                    watchedWindows.remove(window);
+                    window.removeWindowListener(this);
+                }
+            });
+        }
+    }
+
+    @Override
+    public Object getValue(final String key) {
+        return action.getValue(key);
+    }
+
+    @Override
+    public void putValue(final String key, final Object value) {
+        action.putValue(key, value);
+    }
+
+    @Override
+    public void setEnabled(final boolean b) {
+        action.setEnabled(b);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return action.isEnabled();
+    }
+
+    @Override
+    public void addPropertyChangeListener(final PropertyChangeListener listener) {
+        action.addPropertyChangeListener(listener);
+    }
+
+    @Override
+    public void removePropertyChangeListener(final PropertyChangeListener listener) {
+        action.removePropertyChangeListener(listener);
+    }
+}
@@ -0,0 +1,54 @@
+package com.adashrod.swingoutxml.action;
+
+import java.awt.event.ActionEvent;
+
+/**
+ * Optional interface for Actions that are bound with \@{@link com.adashrod.swingoutxml.annotation.ComponentAction}(async = true)
+ * and produce a result. Instead of calling {@link javax.swing.Action#actionPerformed(java.awt.event.ActionEvent)},
+ * {@link AsyncAction} calls {@link BackgroundTask#runInBackground(java.awt.event.ActionEvent)} off of the EDT, then
+ * delivers the result to {@link BackgroundTask#done(Object)} on the EDT.
+ *
+ * Example:
+ * \@ComponentAction(value = {"loadButton"}, async = true) Action loadAction = new LoadAction();
+ * ...
+ * class LoadAction extends AbstractAction implements BackgroundTask&lt;List&lt;String&gt;&gt; {
+ *     public List&lt;String&gt; runInBackground(final ActionEvent e) throws IOException {
+ *         return Files.readAllLines(path);
+ *     }
+ *     public void done(final List&lt;String&gt; lines) {
+ *         lines.forEach(listModel::addElement);
+ *     }
+ *     public void actionPerformed(final ActionEvent e) {} // not called when bound asynchronously
+ * }
+ * @param <T> type of the result
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public interface BackgroundTask<T> {
+    /**
+     * Does the work of the action. Called on a background thread. Implementations that run for a long time should
+     * check {@link Thread#isInterrupted()}, since the thread is interrupted when the task is cancelled.
+     * @param e the event that triggered the action
+     * @return the result to pass to done()
+     * @throws Exception any error, which is passed to failed()
+     */
+    T runInBackground(ActionEvent e) throws Exception;
+
+    /**
+     * Called on the EDT with the result of runInBackground(), unless the task was cancelled
+     * @param result the result
+     */
+    void done(T result);
+
+    /**
+     * Called on the EDT if runInBackground() threw an exception, unless the task was cancelled. By default the
+     * exception is rethrown, so that it goes to the EDT's uncaught exception handler like an exception thrown by a
+     * synchronous action would.
+     * @param e the exception
+     */
+    default void failed(final Exception e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        throw new IllegalStateException(String.format("Background task %s failed", this), e);
+    }
+}
@@ -7,6 +7,13 @@ import java.lang.annotation.Target;
 
 /**
  * Created by aaron on 2015-10-07.
+ *
+ * When cached is true, SwingOutXml wraps the renderer in a {@link com.adashrod.swingoutxml.renderer.CachingListCellRenderer},
+ * which keeps images of rendered cells and paints those instead of calling the renderer for every repaint. This is for
+ * expensive renderers, e.g. ones with icons or HTML labels, whose output depends only on the value, not on the index.
+ * The CachingListCellRenderer can be retrieved from the list with getCellRenderer() to invalidate images or check its
+ * hit rate.
+ * \@CellRenderer(value = "myList", cached = true) ListCellRenderer<Item> cellRenderer = ...
  */
 @Target(ElementType.FIELD)
 @Retention(RetentionPolicy.RUNTIME)
@@ -15,4 +22,14 @@ public @interface CellRenderer {
      * @return IDs of XML elements to set this cell renderer on
      */
     String[] value() default {};
+
+    /**
+     * @return true to cache images of the rendered cells
+     */
+    boolean cached() default false;
+
+    /**
+     * @return maximum number of cell images to keep when cached is true
+     */
+    int cacheSize() default 512;
 }
@@ -75,6 +75,20 @@ import java.lang.annotation.Target;
  *
  * The action attribute in the XML has higher precedence than the value of the annotation. Since using both methods
  * of binding is redundant, if both are specified the value of the \@ComponentAction will be ignored.
+ *
+ * Actions that do slow work, e.g. reading files, can be run off of the EDT by setting async to true. The button is
+ * then given an {@link com.adashrod.swingoutxml.action.AsyncAction} that disables the button, runs the action on an
+ * executor, and re-enables the button on the EDT when it's done. Actions that implement
+ * {@link com.adashrod.swingoutxml.action.BackgroundTask} can also deliver a result on the EDT. Running actions are
+ * cancelled when the window is closed.
+ * ...
+ * public class MyGui extends JFrame {
+ *     \@ComponentAction(value = {"button0"}, async = true, executor = "io") Action saveAction = new AbstractAction() {
+ *         public void actionPerformed(final ActionEvent e) {
+ *             // runs on an executor registered with ActionExecutors.register("io", ...)
+ *         }
+ *     };
+ *     ...
  * @see com.adashrod.swingoutxml.annotation.UiComponent
  * @see com.adashrod.swingoutxml.annotation.Listener
  * @author Aaron Rodriguez (adashrod@gmail.com)
@@ -86,4 +100,15 @@ public @interface ComponentAction {
      * @return IDs of XML elements to attach this action to
      */
     String[] value() default {};
+
+    /**
+     * @return true to run the action off of the EDT
+     */
+    boolean async() default false;
+
+    /**
+     * @return name of an executor registered in {@link com.adashrod.swingoutxml.action.ActionExecutors} to run the
+     * action on when async is true; "" for the default executor
+     */
+    String executor() default "";
 }
@@ -19,6 +19,8 @@ import java.lang.annotation.Target;
  * using custom listeners with addFunction has the following requirements:
  * - the listener class must extend{@link java.util.EventListener}
  * - the add function must take one parameter
+ * Alternatively, the add function can be registered once for the component class in
+ * {@link com.adashrod.swingoutxml.listener.ListenerAdderRegistry}, after which addFunction isn't needed.
  *
  * Examples:
  * XML listeners only:
@@ -138,6 +140,39 @@ import java.lang.annotation.Target;
  *
  * The listeners attribute in the XML has higher precedence than the value of the annotation. Since using both methods
  * of binding is redundant, if both are specified the value of the \@Listener will be ignored.
+ *
+ * High-frequency mouse events:
+ * For MouseMotionListeners and MouseWheelListeners, throttle, coalesce, and latestOnly can be used to limit how often
+ * the listener is called. When either throttle or coalesce is set, SwingOutXml adds a
+ * {@link com.adashrod.swingoutxml.listener.CoalescingMouseDispatcher} to the component instead of the listener itself.
+ * The dispatcher holds back moved, dragged, and wheel events and passes them on to the listener at most once per
+ * interval. Other mouse events are passed on immediately, after any held-back event. The field itself is not modified.
+ * These options apply whether the listener is bound through the annotation or through the XML.
+ * ...
+ * public class MyGui extends JFrame {
+ *     \@Listener(value = {"canvas"}, coalesce = 16) MouseMotionListener dragListener = new MouseMotionAdapter() {
+ *         public void mouseDragged(final MouseEvent e) {
+ *             ...
+ *         }
+ *     };
+ *     ...
+ *
+ * Delegated dispatch:
+ * When delegated is true, mouse and key listeners aren't added to the components at all. Instead, SwingOutXml binds
+ * them in the {@link com.adashrod.swingoutxml.listener.DelegatingEventDispatcher} of the top-level container, which
+ * receives all mouse and key events for that container in one place and routes them to the bound listeners. This is
+ * meant for a listener that is bound to many components, e.g. a hover listener on every cell of a large grid. Other
+ * listener interfaces that the listener implements are still added to the components normally.
+ * ...
+ * public class MyGui extends JFrame {
+ *     \@Listener(value = {"cell0", "cell1", ... "cell999"}, delegated = true) MouseListener hoverListener = new MouseAdapter() {
+ *         ...
+ *
+ * Weak binding:
+ * When weak is true, a {@link com.adashrod.swingoutxml.listener.WeakListener} proxy is registered instead of the
+ * listener, so the components don't keep the listener (and whatever it references, e.g. a long-lived controller)
+ * reachable. Once the listener has been collected, the proxy removes itself from the components. Something other than
+ * the components must keep the listener reachable for as long as it's needed, e.g. the field itself.
  * @see com.adashrod.swingoutxml.annotation.UiComponent
  * @see com.adashrod.swingoutxml.annotation.ComponentAction
  * @author Aaron Rodriguez (adashrod@gmail.com)
@@ -154,4 +189,35 @@ public @interface Listener {
      * @return the name of the function to use to add this listener to the specified component(s)
      */
     String addFunction() default "";
+
+    /**
+     * @return minimum number of milliseconds between calls to the listener for moved, dragged, and wheel events. The
+     * first event after a quiet period is delivered immediately; events during the interval are held back and the last
+     * one is delivered when the interval ends. 0 disables throttling. Can't be combined with coalesce.
+     */
+    int throttle() default 0;
+
+    /**
+     * @return length in milliseconds of the window that moved, dragged, and wheel events are collected in before being
+     * delivered as one event, e.g. 16 for once per frame at 60Hz. Wheel rotations within the window are summed unless
+     * latestOnly is true. 0 disables coalescing. Can't be combined with throttle.
+     */
+    int coalesce() default 0;
+
+    /**
+     * @return when throttling or coalescing, true to deliver only the latest held-back event instead of merging them.
+     * Only changes the behavior for wheel events, since moved and dragged events are never merged.
+     */
+    boolean latestOnly() default false;
+
+    /**
+     * @return true to deliver mouse and key events through the top-level container's
+     * {@link com.adashrod.swingoutxml.listener.DelegatingEventDispatcher} instead of adding the listener to each component
+     */
+    boolean delegated() default false;
+
+    /**
+     * @return true to register a weak proxy for the listener that removes itself once the listener is collected
+     */
+    boolean weak() default false;
 }
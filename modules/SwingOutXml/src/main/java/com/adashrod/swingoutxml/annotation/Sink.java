@@ -0,0 +1,51 @@
+package com.adashrod.swingoutxml.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sink is used on {@link java.util.concurrent.Flow.Publisher} fields in GUI classes to subscribe a component to the
+ * publisher, so that the items it publishes are shown in the component. SwingOutXml subscribes a
+ * {@link com.adashrod.swingoutxml.binding.FlowSink}, which requests a bounded number of items, and applies them on
+ * the EDT once per frame. See FlowSink for the supported properties.
+ *
+ * Like \@{@link Listener}, the publisher can be bound either by this annotation's value or by the publishers attribute
+ * in the XML, where the property can be given in the form property(field):
+ * ...
+ * <j-label id="price" publishers="text(prices)"/>
+ * <j-list id="trades" publishers="trades"/>
+ * ...
+ * public class MarketWindow extends JFrame {
+ *     \@Sink SubmissionPublisher<Double> prices = ...
+ *     \@Sink(buffer = 1024) SubmissionPublisher<Trade> trades = ...
+ *     ...
+ * or
+ * ...
+ * <j-label id="price"/>
+ * ...
+ * public class MarketWindow extends JFrame {
+ *     \@Sink(value = {"price"}, property = "text") SubmissionPublisher<Double> prices = ...
+ *     ...
+ * @see com.adashrod.swingoutxml.binding.FlowSink
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sink {
+    /**
+     * @return IDs of XML elements to subscribe to this publisher
+     */
+    String[] value() default {};
+
+    /**
+     * @return the component property to apply items to: text, value, or append; "" for the component's default
+     */
+    String property() default "";
+
+    /**
+     * @return maximum number of items requested per frame, which is also the most that are buffered for append
+     */
+    int buffer() default 256;
+}
@@ -0,0 +1,23 @@
+package com.adashrod.swingoutxml.attribute;
+
+import org.w3c.dom.Element;
+
+import java.awt.Container;
+
+/**
+ * Applies one XML attribute to the component created from the element that has it, e.g. tool-tip-text="..." to a
+ * JComponent by calling setToolTipText(). Handlers are registered by attribute name in {@link AttributeHandlerRegistry}
+ * and are only called for elements that actually have the attribute.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@FunctionalInterface
+public interface AttributeHandler {
+    /**
+     * @param context   the object being rendered, i.e. the one whose class has the \@SwingOutContainer annotation
+     * @param element   the XML element that has the attribute
+     * @param component the component created from element
+     * @param value     the value of the attribute, trimmed
+     * @throws IllegalArgumentException if the value is invalid or the attribute isn't supported on this component
+     */
+    void apply(Object context, Element element, Container component, String value);
+}
@@ -0,0 +1,341 @@
+package com.adashrod.swingoutxml.attribute;
+
+import com.adashrod.swingoutxml.binding.Binding;
+import com.adashrod.swingoutxml.binding.BoundValue;
+import com.adashrod.swingoutxml.binding.TextStream;
+import com.adashrod.swingoutxml.icon.AsyncIcon;
+import com.adashrod.swingoutxml.icon.IconCache;
+import com.adashrod.swingoutxml.model.MappedDocument;
+import com.adashrod.swingoutxml.util.DomUtils;
+import com.adashrod.swingoutxml.util.ReflectionUtils;
+import org.w3c.dom.Element;
+
+import javax.swing.AbstractButton;
+import javax.swing.ComboBoxModel;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JTable;
+import javax.swing.JTree;
+import javax.swing.ListModel;
+import javax.swing.table.TableModel;
+import javax.swing.text.Document;
+import javax.swing.text.JTextComponent;
+import javax.swing.tree.TreeModel;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of {@link AttributeHandler}s, keyed by attribute name. SwingOutXml iterates over the attributes present on
+ * each element and looks each one up here, so elements don't pay for attributes they don't have. An attribute that
+ * isn't registered is an error.
+ *
+ * Handlers for the simple attributes (enabled, title, preferred-size, etc.) are registered by default. Attributes
+ * that SwingOutXml handles itself during instantiation, layout, and binding (id, field, listeners, constraints, etc.)
+ * are reserved and can't be replaced. Others can be registered with
+ * {@link AttributeHandlerRegistry#register(String, AttributeHandler)}, e.g.
+ *     AttributeHandlerRegistry.register("opaque", (final Object context, final Element element, final Container component, final String value) -> {
+ *         ((JComponent) component).setOpaque(Boolean.parseBoolean(value));
+ *     });
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class AttributeHandlerRegistry {
+    public static final String A_ENABLED = "enabled";
+    public static final String A_TITLE = "title";
+    public static final String A_PREFERRED_SIZE = "preferred-size";
+    public static final String A_EDITABLE = "editable";
+    public static final String A_TOOL_TIP_TEXT = "tool-tip-text";
+    public static final String A_DEFAULT_CLOSE_OPERATION = "default-close-operation";
+    public static final String A_SELECTION_MODE = "selection-mode";
+    public static final String A_LAYOUT_ORIENTATION = "layout-orientation";
+    public static final String A_MODEL = "model";
+    public static final String A_PROTOTYPE_CELL_VALUE = "prototype-cell-value";
+    public static final String A_ICON = "icon";
+    public static final String A_BIND = "bind";
+    public static final String A_STREAM = "stream";
+
+    /**
+     * attributes that are handled by SwingOutXml itself, outside of the handler table
+     */
+    private static final Collection<String> reservedAttributes = Arrays.asList("id", "field", "listeners", "action",
+        "cell-renderer", "button-group", "constraints", "add", "constructor-args", "layout", "layout-constructor-args",
+        "visible", "style", "publishers", "cache", "stable-layout");
+    private static final Collection<String> awtPackages = Arrays.asList("java.awt", "javax.swing");
+    private static final AttributeHandler reservedHandler = (final Object context, final Element element, final Container component, final String value) -> {};
+
+    private static final Map<String, AttributeHandler> handlers = new ConcurrentHashMap<>();
+
+    static {
+        for (final String attribute: reservedAttributes) {
+            handlers.put(attribute, reservedHandler);
+        }
+        register(A_ENABLED, AttributeHandlerRegistry::setEnabled);
+        register(A_TITLE, AttributeHandlerRegistry::setTitle);
+        register(A_PREFERRED_SIZE, AttributeHandlerRegistry::setPreferredSize);
+        register(A_EDITABLE, AttributeHandlerRegistry::setEditable);
+        register(A_TOOL_TIP_TEXT, AttributeHandlerRegistry::setToolTipText);
+        register(A_DEFAULT_CLOSE_OPERATION, AttributeHandlerRegistry::setDefaultCloseOperation);
+        register(A_SELECTION_MODE, AttributeHandlerRegistry::setSelectionMode);
+        register(A_LAYOUT_ORIENTATION, AttributeHandlerRegistry::setLayoutOrientation);
+        register(A_MODEL, AttributeHandlerRegistry::setModel);
+        register(A_PROTOTYPE_CELL_VALUE, AttributeHandlerRegistry::setPrototypeCellValue);
+        register(A_ICON, AttributeHandlerRegistry::setIcon);
+        register(A_BIND, AttributeHandlerRegistry::bind);
+        register(A_STREAM, AttributeHandlerRegistry::setStream);
+    }
+
+    /**
+     * Registers a handler for an attribute, replacing any existing handler for it
+     * @param attribute name of the XML attribute
+     * @param handler   handler to apply the attribute
+     * @throws IllegalArgumentException if the attribute is reserved by SwingOutXml
+     */
+    public static void register(final String attribute, final AttributeHandler handler) {
+        if (reservedAttributes.contains(attribute)) {
+            throw new IllegalArgumentException(String.format("The %s attribute is reserved", attribute));
+        }
+        handlers.put(attribute, handler);
+    }
+
+    /**
+     * @param attribute name of an XML attribute
+     * @return the handler for the attribute, a no-op handler if it's reserved, or null if it isn't a known attribute
+     */
+    public static AttributeHandler get(final String attribute) {
+        return handlers.get(attribute);
+    }
+
+    private static void setEnabled(final Object context, final Element element, final Container component, final String value) {
+        component.setEnabled(Boolean.parseBoolean(value));
+    }
+
+    private static void setTitle(final Object context, final Element element, final Container component, final String value) {
+        if (component instanceof JFrame) {
+            ((JFrame) component).setTitle(value);
+        } else if (component instanceof JDialog) {
+            ((JDialog) component).setTitle(value);
+        } else if (component instanceof JInternalFrame) {
+            ((JInternalFrame) component).setTitle(value);
+        } else {
+            throw unsupported(A_TITLE, element);
+        }
+    }
+
+    private static void setPreferredSize(final Object context, final Element element, final Container component, final String value) {
+        final String[] dimensions = value.split("\\s*,\\s*");
+        if (dimensions.length != 2) {
+            throw new IllegalArgumentException(String.format("Error parsing %s attribute in element %s", A_PREFERRED_SIZE, DomUtils.toString(element)));
+        }
+        final int width = Integer.parseInt(dimensions[0]);
+        final int height = Integer.parseInt(dimensions[1]);
+        component.setPreferredSize(new Dimension(width, height));
+    }
+
+    private static void setEditable(final Object context, final Element element, final Container component, final String value) {
+        if (component instanceof JTextComponent) {
+            ((JTextComponent) component).setEditable(Boolean.parseBoolean(value));
+        }
+    }
+
+    private static void setToolTipText(final Object context, final Element element, final Container component, final String value) {
+        if (!(component instanceof JComponent)) {
+            throw unsupported(A_TOOL_TIP_TEXT, element);
+        }
+        ((JComponent) component).setToolTipText(value);
+    }
+
+    private static void setDefaultCloseOperation(final Object context, final Element element, final Container component, final String value) {
+        final int operation = parseInt(context, element, A_DEFAULT_CLOSE_OPERATION, value);
+        if (component instanceof JFrame) {
+            ((JFrame) component).setDefaultCloseOperation(operation);
+        } else if (component instanceof JDialog) {
+            ((JDialog) component).setDefaultCloseOperation(operation);
+        } else if (component instanceof JInternalFrame) {
+            ((JInternalFrame) component).setDefaultCloseOperation(operation);
+        } else {
+            throw unsupported(A_DEFAULT_CLOSE_OPERATION, element);
+        }
+    }
+
+    private static void setSelectionMode(final Object context, final Element element, final Container component, final String value) {
+        final int mode = parseInt(context, element, A_SELECTION_MODE, value);
+        if (component instanceof JList) {
+            ((JList) component).setSelectionMode(mode);
+        } else if (component instanceof JTable) {
+            ((JTable) component).setSelectionMode(mode);
+        } else if (component instanceof JTree) {
+            ((JTree) component).getSelectionModel().setSelectionMode(mode);
+        } else {
+            throw unsupported(A_SELECTION_MODE, element);
+        }
+    }
+
+    private static void setLayoutOrientation(final Object context, final Element element, final Container component, final String value) {
+        if (!(component instanceof JList)) {
+            throw unsupported(A_LAYOUT_ORIENTATION, element);
+        }
+        ((JList) component).setLayoutOrientation(parseInt(context, element, A_LAYOUT_ORIENTATION, value));
+    }
+
+    /**
+     * Sets the model of a list, table, tree, or combo box, or the document of a text component, from a field of context,
+     * e.g. model="logModel"
+     */
+    @SuppressWarnings("unchecked")
+    private static void setModel(final Object context, final Element element, final Container component, final String value) {
+        final Object model = parseValue(context, element, value);
+        if (component instanceof JList && model instanceof ListModel) {
+            ((JList) component).setModel((ListModel) model);
+        } else if (component instanceof JTable && model instanceof TableModel) {
+            ((JTable) component).setModel((TableModel) model);
+        } else if (component instanceof JTree && model instanceof TreeModel) {
+            ((JTree) component).setModel((TreeModel) model);
+        } else if (component instanceof JComboBox && model instanceof ComboBoxModel) {
+            ((JComboBox) component).setModel((ComboBoxModel) model);
+        } else if (component instanceof JTextComponent && model instanceof MappedDocument) {
+            ((MappedDocument) model).install((JTextComponent) component);
+        } else if (component instanceof JTextComponent && model instanceof Document) {
+            ((JTextComponent) component).setDocument((Document) model);
+        } else if (component instanceof JList || component instanceof JTable || component instanceof JTree ||
+                component instanceof JComboBox || component instanceof JTextComponent) {
+            throw new IllegalArgumentException(String.format("%s is not a valid model for %s elements: %s", value,
+                element.getTagName(), DomUtils.toString(element)));
+        } else {
+            throw unsupported(A_MODEL, element);
+        }
+    }
+
+    /**
+     * Sets the prototype cell value of a list, which gives it a fixed cell size so that it doesn't measure every cell
+     */
+    @SuppressWarnings("unchecked")
+    private static void setPrototypeCellValue(final Object context, final Element element, final Container component, final String value) {
+        if (!(component instanceof JList)) {
+            throw unsupported(A_PROTOTYPE_CELL_VALUE, element);
+        }
+        ((JList) component).setPrototypeCellValue(value);
+    }
+
+    /**
+     * Sets the icon of a label or button to the shared icon for a classpath resource or file path from {@link IconCache},
+     * e.g. icon="/icons/save.png"
+     */
+    private static void setIcon(final Object context, final Element element, final Container component, final String value) {
+        final AsyncIcon icon = IconCache.get(value);
+        if (component instanceof AbstractButton) {
+            ((AbstractButton) component).setIcon(icon);
+        } else if (component instanceof JLabel) {
+            ((JLabel) component).setIcon(icon);
+        } else {
+            throw unsupported(A_ICON, element);
+        }
+        icon.attach(component);
+    }
+
+    /**
+     * Binds a property of the component to a {@link BoundValue} field of context, e.g. bind="name" or
+     * bind="selected: enabled"; see {@link Binding} for the supported properties
+     */
+    private static void bind(final Object context, final Element element, final Container component, final String value) {
+        final int colon = value.indexOf(':');
+        final String property = colon >= 0 ? value.substring(0, colon).trim() : null;
+        final String fieldName = value.substring(colon + 1).trim();
+        final Field field = ReflectionUtils.getDeclaredFieldHierarchical(context.getClass(), fieldName);
+        if (field == null || !BoundValue.class.isAssignableFrom(field.getType())) {
+            throw new IllegalArgumentException(String.format("%s attr must name a BoundValue field of %s: %s", A_BIND,
+                context.getClass().getName(), DomUtils.toString(element)));
+        }
+        final BoundValue<?> boundValue;
+        try {
+            boundValue = (BoundValue<?>) field.get(context);
+        } catch (final IllegalAccessException iae) {
+            throw new IllegalArgumentException(iae);
+        }
+        if (boundValue == null) {
+            throw new IllegalArgumentException(String.format("%s.%s is null: %s", context.getClass().getName(), fieldName,
+                DomUtils.toString(element)));
+        }
+        if (!(component instanceof JComponent)) {
+            throw new IllegalArgumentException(String.format("%s attr is only supported on JComponents: %s", A_BIND,
+                DomUtils.toString(element)));
+        }
+        try {
+            Binding.bind((JComponent) component, property, boundValue, valueType(field));
+        } catch (final IllegalArgumentException iae) {
+            throw new IllegalArgumentException(String.format("%s in element %s", iae.getMessage(), DomUtils.toString(element)));
+        }
+    }
+
+    /**
+     * @return the class of the values of a BoundValue field, e.g. Integer for BoundValue<Integer> or List for
+     * BoundValue<List<String>>, or null if the field's type doesn't say, e.g. for a raw BoundValue
+     */
+    private static Class<?> valueType(final Field field) {
+        if (!(field.getGenericType() instanceof ParameterizedType)) {
+            return null;
+        }
+        final Type argument = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+        if (argument instanceof Class) {
+            return (Class<?>) argument;
+        } else if (argument instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) argument).getRawType();
+        }
+        return null;
+    }
+
+    /**
+     * Appends the lines of a {@link TextStream} field of context to a text area, e.g. stream="log"
+     */
+    private static void setStream(final Object context, final Element element, final Container component, final String value) {
+        if (!(component instanceof JTextComponent)) {
+            throw unsupported(A_STREAM, element);
+        }
+        final Object stream = parseValue(context, element, value);
+        if (!(stream instanceof TextStream)) {
+            throw new IllegalArgumentException(String.format("%s attr must name a TextStream field of %s: %s", A_STREAM,
+                context.getClass().getName(), DomUtils.toString(element)));
+        }
+        ((TextStream) stream).attach((JTextComponent) component);
+    }
+
+    /**
+     * Parses an int attribute, which can be an int literal, a constant such as "WindowConstants.DISPOSE_ON_CLOSE", or a
+     * field of context
+     */
+    private static int parseInt(final Object context, final Element element, final String attribute, final String value) {
+        final Object parsed = parseValue(context, element, value);
+        if (!(parsed instanceof Integer)) {
+            throw new IllegalArgumentException(String.format("%s attr must be an int: %s", attribute, DomUtils.toString(element)));
+        }
+        return (Integer) parsed;
+    }
+
+    /**
+     * Parses an attribute whose value is a token, such as a field of context
+     */
+    private static Object parseValue(final Object context, final Element element, final String value) {
+        try {
+            return ReflectionUtils.parseToken(context, null, Collections.emptyMap(), awtPackages, value).getValue();
+        } catch (final ParseException pe) {
+            throw new IllegalArgumentException(String.format("%s in element %s", pe.getMessage(), DomUtils.toString(element)));
+        }
+    }
+
+    private static IllegalArgumentException unsupported(final String attribute, final Element element) {
+        return new IllegalArgumentException(String.format("The %s attribute is not supported on %s elements", attribute,
+            element.getTagName()));
+    }
+}
@@ -0,0 +1,345 @@
+package com.adashrod.swingoutxml.binding;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JProgressBar;
+import javax.swing.JSlider;
+import javax.swing.JSpinner;
+import javax.swing.JToggleButton;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A link between one property of a component and a {@link BoundValue}. Bindings are created with
+ * {@link Binding#bind(JComponent, String, BoundValue)}, which is what the bind attribute uses.
+ *
+ * A binding is kept by its component, in a client property, and the BoundValue only references it weakly, so a
+ * long-lived BoundValue doesn't keep the components bound to it reachable: once a window is closed and dropped, its
+ * bindings are collected with it, and the BoundValue forgets them the next time it flushes. To stop updating a component
+ * that's still in use, call {@link Binding#unbind()}, {@link Binding#unbindAll(Component)} for every binding in a
+ * subtree, or {@link BoundValue#unbindAll()}.
+ *
+ * Supported properties:
+ * text:     JTextComponent (two-way), String values; JLabel and AbstractButton (one-way), any value, converted with
+ *           String.valueOf()
+ * selected: AbstractButton (two-way), Boolean values
+ * value:    JSlider (two-way), Integer values; JSpinner (two-way), values of the class of the spinner model's value, e.g.
+ *           Integer for a SpinnerNumberModel created with ints; JProgressBar (one-way), Number values
+ * enabled, visible: any JComponent (one-way), Boolean values
+ * Values aren't converted, other than to text for one-way text properties: binding a value of an incompatible type,
+ * e.g. a BoundValue<Integer> to the text of a text field, is rejected when it's bound, instead of failing later when
+ * an edit is written back. The type of the value is the one given to bind(), or else the class of its current value;
+ * the bind attribute uses the type argument of the field, e.g. Integer for BoundValue<Integer>.
+ * If no property is given, it's value for sliders, spinners, and progress bars, selected for check boxes, radio buttons,
+ * toggle buttons, and check box and radio button menu items, and text for everything else.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class Binding implements FrameScheduler.Flushable, DocumentListener, ItemListener, ChangeListener {
+    public static final String TEXT = "text";
+    public static final String SELECTED = "selected";
+    public static final String VALUE = "value";
+    public static final String ENABLED = "enabled";
+    public static final String VISIBLE = "visible";
+    private static final String bindingsProperty = "swingoutxml.bindings";
+
+    private final JComponent component;
+    private final String property;
+    private final BoundValue<?> boundValue;
+    /**
+     * true while pushing a value into the component, so that the component's own change events are ignored
+     */
+    private boolean pushing;
+    /**
+     * true when the component was edited and the edit hasn't been written back yet
+     */
+    private boolean edited;
+
+    private Binding(final JComponent component, final String property, final BoundValue<?> boundValue) {
+        this.component = component;
+        this.property = property;
+        this.boundValue = boundValue;
+    }
+
+    /**
+     * Binds a component property to a value, see {@link Binding#bind(JComponent, String, BoundValue, Class)}. The type
+     * of the value is the class of its current value, if it isn't null.
+     */
+    public static Binding bind(final JComponent component, final String property, final BoundValue<?> boundValue) {
+        return bind(component, property, boundValue, null);
+    }
+
+    /**
+     * Binds a component property to a value, pushes the current value into the component, and for two-way
+     * properties, starts listening for edits. Must be called on the EDT.
+     * @param component  component to bind
+     * @param property   name of the property, or null for the component's default property
+     * @param boundValue value to bind to
+     * @param valueType  class of the values boundValue holds, or null to use the class of its current value
+     * @return the binding
+     * @throws IllegalArgumentException if the property isn't supported for the component, or for values of valueType
+     */
+    public static Binding bind(final JComponent component, final String property, final BoundValue<?> boundValue,
+            final Class<?> valueType) {
+        final String p = property != null ? property : defaultProperty(component);
+        final Object current = boundValue.get();
+        final Class<?> type = valueType != null ? valueType : current != null ? current.getClass() : null;
+        final Binding binding = new Binding(component, p, boundValue);
+        switch (p) {
+            case TEXT:
+                if (component instanceof JTextComponent) {
+                    checkEdits(p, component, type, String.class);
+                    ((JTextComponent) component).getDocument().addDocumentListener(binding);
+                } else if (!(component instanceof JLabel) && !(component instanceof AbstractButton)) {
+                    throw unsupported(p, component);
+                }
+                break;
+            case SELECTED:
+                if (!(component instanceof AbstractButton)) {
+                    throw unsupported(p, component);
+                }
+                checkEdits(p, component, type, Boolean.class);
+                ((AbstractButton) component).addItemListener(binding);
+                break;
+            case VALUE:
+                if (component instanceof JSlider) {
+                    checkEdits(p, component, type, Integer.class);
+                    ((JSlider) component).addChangeListener(binding);
+                } else if (component instanceof JSpinner) {
+                    final Object spinnerValue = ((JSpinner) component).getValue();
+                    if (spinnerValue != null) {
+                        checkEdits(p, component, type, spinnerValue.getClass());
+                    }
+                    ((JSpinner) component).addChangeListener(binding);
+                } else if (component instanceof JProgressBar) {
+                    checkShown(p, component, type, Number.class);
+                } else {
+                    throw unsupported(p, component);
+                }
+                break;
+            case ENABLED:
+            case VISIBLE:
+                checkShown(p, component, type, Boolean.class);
+                break;
+            default:
+                throw unsupported(p, component);
+        }
+        bindingsOf(component, true).add(binding);
+        boundValue.addBinding(binding);
+        return binding;
+    }
+
+    /**
+     * Unbinds every binding of component and of its descendants. Must be called on the EDT.
+     * @param component root of the subtree to unbind
+     */
+    public static void unbindAll(final Component component) {
+        if (component instanceof JComponent) {
+            final List<Binding> bindings = bindingsOf((JComponent) component, false);
+            if (bindings != null) {
+                for (final Binding binding: new ArrayList<>(bindings)) {
+                    binding.unbind();
+                }
+            }
+        }
+        if (component instanceof Container) {
+            for (final Component child: ((Container) component).getComponents()) {
+                unbindAll(child);
+            }
+        }
+    }
+
+    /**
+     * @return the bindings kept in component's client property, which is created if create is true, or else null
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Binding> bindingsOf(final JComponent component, final boolean create) {
+        List<Binding> bindings = (List<Binding>) component.getClientProperty(bindingsProperty);
+        if (bindings == null && create) {
+            bindings = new ArrayList<>(1);
+            component.putClientProperty(bindingsProperty, bindings);
+        }
+        return bindings;
+    }
+
+    /**
+     * Stops updating the component and listening to it. Must be called on the EDT.
+     */
+    public void unbind() {
+        boundValue.removeBinding(this);
+        final List<Binding> bindings = bindingsOf(component, false);
+        if (bindings != null) {
+            bindings.remove(this);
+        }
+        if (component instanceof JTextComponent) {
+            ((JTextComponent) component).getDocument().removeDocumentListener(this);
+        } else if (component instanceof AbstractButton) {
+            ((AbstractButton) component).removeItemListener(this);
+        } else if (component instanceof JSlider) {
+            ((JSlider) component).removeChangeListener(this);
+        } else if (component instanceof JSpinner) {
+            ((JSpinner) component).removeChangeListener(this);
+        }
+    }
+
+    public JComponent getComponent() {
+        return component;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    private static String defaultProperty(final Component component) {
+        if (component instanceof JSlider || component instanceof JSpinner || component instanceof JProgressBar) {
+            return VALUE;
+        } else if (component instanceof AbstractButton &&
+                ((AbstractButton) component).getModel() instanceof JToggleButton.ToggleButtonModel) {
+            return SELECTED;
+        }
+        return TEXT;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the component's edits, which are values of edited, can't be stored in a value
+     * of valueType
+     */
+    private static void checkEdits(final String property, final Component component, final Class<?> valueType,
+            final Class<?> edited) {
+        if (valueType != null && !valueType.isAssignableFrom(edited)) {
+            throw new IllegalArgumentException(String.format("Can't bind %s of %s, which is a %s, to a value of %s",
+                property, component.getClass().getName(), edited.getName(), valueType.getName()));
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if a value of valueType can never be a value of shown
+     */
+    private static void checkShown(final String property, final Component component, final Class<?> valueType,
+            final Class<?> shown) {
+        if (valueType != null && !shown.isAssignableFrom(valueType) && !valueType.isAssignableFrom(shown)) {
+            throw new IllegalArgumentException(String.format("Can't bind %s of %s, which is a %s, to a value of %s",
+                property, component.getClass().getName(), shown.getName(), valueType.getName()));
+        }
+    }
+
+    private static IllegalArgumentException unsupported(final String property, final Component component) {
+        return new IllegalArgumentException(String.format("Can't bind %s of %s", property, component.getClass().getName()));
+    }
+
+    /**
+     * Sets the component's property to value, on the EDT, if it's different
+     */
+    void push(final Object value) {
+        if (edited) {
+            // the component has newer edits that haven't been written back yet
+            return;
+        }
+        pushing = true;
+        try {
+            switch (property) {
+                case TEXT: {
+                    final String text = value == null ? "" : String.valueOf(value);
+                    if (component instanceof JTextComponent) {
+                        final JTextComponent textComponent = (JTextComponent) component;
+                        if (!text.equals(textComponent.getText())) {
+                            textComponent.setText(text);
+                        }
+                    } else if (component instanceof JLabel) {
+                        ((JLabel) component).setText(text);
+                    } else {
+                        ((AbstractButton) component).setText(text);
+                    }
+                    break;
+                }
+                case SELECTED:
+                    ((AbstractButton) component).setSelected(Boolean.TRUE.equals(value));
+                    break;
+                case VALUE:
+                    if (component instanceof JSlider) {
+                        ((JSlider) component).setValue(value == null ? 0 : ((Number) value).intValue());
+                    } else if (component instanceof JProgressBar) {
+                        ((JProgressBar) component).setValue(value == null ? 0 : ((Number) value).intValue());
+                    } else if (!Objects.equals(((JSpinner) component).getValue(), value)) {
+                        ((JSpinner) component).setValue(value);
+                    }
+                    break;
+                case ENABLED:
+                    component.setEnabled(Boolean.TRUE.equals(value));
+                    break;
+                case VISIBLE:
+                    component.setVisible(Boolean.TRUE.equals(value));
+                    break;
+                default:
+                    break;
+            }
+        } finally {
+            pushing = false;
+        }
+    }
+
+    /**
+     * Notes an edit in the component, to be written back in the next frame
+     */
+    private void edited() {
+        if (!pushing && !edited) {
+            edited = true;
+            FrameScheduler.schedule(this);
+        }
+    }
+
+    /**
+     * Writes the component's edited value back to the bound value
+     */
+    @Override
+    public void flush() {
+        edited = false;
+        switch (property) {
+            case TEXT:
+                boundValue.setFromComponent(((JTextComponent) component).getText());
+                break;
+            case SELECTED:
+                boundValue.setFromComponent(((AbstractButton) component).isSelected());
+                break;
+            case VALUE:
+                boundValue.setFromComponent(component instanceof JSlider ? ((JSlider) component).getValue() :
+                    ((JSpinner) component).getValue());
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void insertUpdate(final DocumentEvent e) {
+        edited();
+    }
+
+    @Override
+    public void removeUpdate(final DocumentEvent e) {
+        edited();
+    }
+
+    @Override
+    public void changedUpdate(final DocumentEvent e) {}
+
+    @Override
+    public void itemStateChanged(final ItemEvent e) {
+        edited();
+    }
+
+    @Override
+    public void stateChanged(final ChangeEvent e) {
+        edited();
+    }
+}
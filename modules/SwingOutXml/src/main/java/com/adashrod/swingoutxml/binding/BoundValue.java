@@ -0,0 +1,141 @@
+package com.adashrod.swingoutxml.binding;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A value in a GUI class that's kept in sync with component properties bound to it with the bind attribute:
+ * <j-text-field bind="name"/>
+ * <j-label bind="text: status"/>
+ * <j-check-box bind="selected: enabled"/>
+ * <j-slider bind="volume"/>
+ * ...
+ * public class MyGui extends JFrame {
+ *     BoundValue<String> name = new BoundValue<>("");
+ *     BoundValue<String> status = new BoundValue<>("idle");
+ *     BoundValue<Boolean> enabled = new BoundValue<>(true);
+ *     BoundValue<Integer> volume = new BoundValue<>(50);
+ *     ...
+ *
+ * {@link BoundValue#set(Object)} can be called from any thread, as often as needed: it only stores the value and marks
+ * it dirty, and the latest value is pushed to the bound components on the EDT at most once per frame by the
+ * {@link FrameScheduler}, together with every other dirty value. Edits in the components are written back to the
+ * value the same way, once per frame, so typing in a bound text field doesn't allocate anything per keystroke beyond
+ * what Swing does. Listeners added with {@link BoundValue#addListener(Listener)} are called on the EDT after each flush.
+ * Edits are stored as the component reports them, without conversion, so the value's type has to match the property
+ * it's bound to, e.g. String for the text of a text field; see {@link Binding} for the types each property supports.
+ * Mismatched types are rejected when they're bound.
+ *
+ * The value only references its {@link Binding}s weakly; each binding is kept by its component, so a BoundValue that
+ * outlives a window, e.g. one in a long-lived model shared by many windows, doesn't keep the window's components
+ * reachable. Listeners are referenced strongly, like Swing's listeners, and should be removed by their owners.
+ * {@link BoundValue#unbindAll()} unbinds every component.
+ * @param <T> type of the value
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class BoundValue<T> implements FrameScheduler.Flushable {
+    /**
+     * Called on the EDT with the new value after it changed
+     * @param <T> type of the value
+     */
+    @FunctionalInterface
+    public interface Listener<T> {
+        void valueChanged(T value);
+    }
+
+    private final List<WeakReference<Binding>> bindings = new CopyOnWriteArrayList<>();
+    private final List<Listener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile T value;
+
+    public BoundValue(final T value) {
+        this.value = value;
+    }
+
+    public T get() {
+        return value;
+    }
+
+    /**
+     * Sets the value and schedules it to be pushed to the bound components in the next frame
+     * @param value the new value
+     */
+    public void set(final T value) {
+        this.value = value;
+        if (dirty.compareAndSet(false, true)) {
+            FrameScheduler.schedule(this);
+        }
+    }
+
+    public void addListener(final Listener<? super T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(final Listener<? super T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Unbinds all of the components bound to this value, see {@link Binding#unbind()}. Must be called on the EDT.
+     */
+    public void unbindAll() {
+        for (final WeakReference<Binding> reference: bindings) {
+            final Binding binding = reference.get();
+            if (binding != null) {
+                binding.unbind();
+            }
+        }
+        bindings.clear();
+    }
+
+    /**
+     * Sets the value from a component's edit, on the EDT
+     */
+    @SuppressWarnings("unchecked")
+    void setFromComponent(final Object value) {
+        if (!Objects.equals(this.value, value)) {
+            set((T) value);
+        }
+    }
+
+    void addBinding(final Binding binding) {
+        bindings.add(new WeakReference<>(binding));
+        binding.push(value);
+    }
+
+    void removeBinding(final Binding binding) {
+        bindings.removeIf((final WeakReference<Binding> reference) -> {
+            final Binding b = reference.get();
+            return b == null || b == binding;
+        });
+    }
+
+    @Override
+    public void flush() {
+        dirty.set(false);
+        final T current = value;
+        boolean collected = false;
+        for (final WeakReference<Binding> reference: bindings) {
+            final Binding binding = reference.get();
+            if (binding != null) {
+                binding.push(current);
+            } else {
+                collected = true;
+            }
+        }
+        if (collected) {
+            bindings.removeIf((final WeakReference<Binding> reference) -> { return reference.get() == null; });
+        }
+        for (final Listener<? super T> listener: listeners) {
+            listener.valueChanged(current);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
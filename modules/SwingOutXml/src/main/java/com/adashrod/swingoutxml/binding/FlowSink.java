@@ -0,0 +1,222 @@
+package com.adashrod.swingoutxml.binding;
+
+import javax.swing.AbstractButton;
+import javax.swing.DefaultListModel;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JProgressBar;
+import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
+import javax.swing.text.JTextComponent;
+import java.awt.Component;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A Flow.Subscriber that shows the items of a publisher in a component. It's what SwingOutXml subscribes for
+ * \@{@link com.adashrod.swingoutxml.annotation.Sink} publishers and the publishers attribute.
+ *
+ * The sink never has more than buffer items of outstanding demand. Items are collected as they arrive, on the
+ * publisher's thread, and applied on the EDT once per frame by the {@link FrameScheduler}, after which the sink
+ * requests as many items as were received. So a publisher can deliver at most buffer items per frame, no matter how
+ * fast it produces, and a slow EDT slows the publisher down instead of being flooded.
+ *
+ * Supported properties:
+ * text:   JLabel, AbstractButton, and JTextComponent; only the latest item is shown, with String.valueOf()
+ * value:  JProgressBar and JSlider; only the latest item is shown; items must be Numbers
+ * append: JList with a DefaultListModel; all items are appended, one intervalAdded event per frame
+ * If no property is given, it's append for lists, value for progress bars and sliders, and text for everything else.
+ *
+ * The subscription is cancelled when the component stops being displayable, e.g. when its window is disposed, or
+ * with {@link FlowSink#cancel()}. An error from the publisher, unless the sink was cancelled, is rethrown on the EDT,
+ * wrapped in an IllegalStateException.
+ * @param <T> type of the items
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class FlowSink<T> implements Flow.Subscriber<T>, FrameScheduler.Flushable {
+    public static final String TEXT = "text";
+    public static final String VALUE = "value";
+    public static final String APPEND = "append";
+
+    private final Component component;
+    private final String property;
+    private final int buffer;
+    private final AtomicReference<T> latest = new AtomicReference<>();
+    private final Queue<T> batch = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger received = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final HierarchyListener displayabilityListener;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+
+    /**
+     * @param component component to show items in
+     * @param property  text, value, or append, or null for the component's default
+     * @param buffer    maximum number of items requested per frame
+     * @throws IllegalArgumentException if the property isn't supported for the component
+     */
+    public FlowSink(final Component component, final String property, final int buffer) {
+        if (buffer <= 0) {
+            throw new IllegalArgumentException(String.format("buffer must be positive: %d", buffer));
+        }
+        this.component = component;
+        this.property = property != null && !property.isEmpty() ? property : defaultProperty(component);
+        this.buffer = buffer;
+        displayabilityListener = (final HierarchyEvent e) -> {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 && !component.isDisplayable()) {
+                cancel();
+            }
+        };
+        final boolean supported;
+        switch (this.property) {
+            case TEXT:
+                supported = component instanceof JLabel || component instanceof AbstractButton || component instanceof JTextComponent;
+                break;
+            case VALUE:
+                supported = component instanceof JProgressBar || component instanceof JSlider;
+                break;
+            case APPEND:
+                supported = component instanceof JList && ((JList<?>) component).getModel() instanceof DefaultListModel;
+                break;
+            default:
+                supported = false;
+        }
+        if (!supported) {
+            throw new IllegalArgumentException(String.format("Can't sink publisher items into %s of %s", this.property,
+                component.getClass().getName()));
+        }
+    }
+
+    /**
+     * Creates a sink and subscribes it to the publisher
+     * @return the sink
+     */
+    public static <T> FlowSink<T> subscribe(final Flow.Publisher<T> publisher, final Component component,
+            final String property, final int buffer) {
+        final FlowSink<T> sink = new FlowSink<>(component, property, buffer);
+        publisher.subscribe(sink);
+        return sink;
+    }
+
+    private static String defaultProperty(final Component component) {
+        if (component instanceof JList) {
+            return APPEND;
+        } else if (component instanceof JProgressBar || component instanceof JSlider) {
+            return VALUE;
+        }
+        return TEXT;
+    }
+
+    /**
+     * Cancels the subscription; items that were already received but not applied are dropped
+     */
+    public void cancel() {
+        cancelled = true;
+        final Flow.Subscription s = subscription;
+        if (s != null) {
+            s.cancel();
+        }
+        component.removeHierarchyListener(displayabilityListener);
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        if (this.subscription != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        component.addHierarchyListener(displayabilityListener);
+        subscription.request(buffer);
+    }
+
+    @Override
+    public void onNext(final T item) {
+        if (cancelled) {
+            return;
+        }
+        if (APPEND.equals(property)) {
+            batch.add(item);
+        } else {
+            latest.set(item);
+        }
+        received.incrementAndGet();
+        if (scheduled.compareAndSet(false, true)) {
+            FrameScheduler.schedule(this);
+        }
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        if (cancelled) {
+            return;
+        }
+        // onError() mustn't throw, and the publisher's thread has nobody to report to, so it goes to the EDT like an
+        // exception from a listener would
+        SwingUtilities.invokeLater(() -> {
+            throw new IllegalStateException(String.format("Publisher for %s failed", component), throwable);
+        });
+    }
+
+    @Override
+    public void onComplete() {}
+
+    /**
+     * Applies the received items to the component, on the EDT, and requests more
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        scheduled.set(false);
+        if (cancelled) {
+            return;
+        }
+        final int count = received.getAndSet(0);
+        switch (property) {
+            case APPEND: {
+                final List<T> items = new ArrayList<>(count);
+                T item;
+                while ((item = batch.poll()) != null) {
+                    items.add(item);
+                }
+                if (!items.isEmpty()) {
+                    ((DefaultListModel<T>) ((JList<T>) component).getModel()).addAll(items);
+                }
+                break;
+            }
+            case TEXT: {
+                final String text = String.valueOf(latest.get());
+                if (component instanceof JLabel) {
+                    ((JLabel) component).setText(text);
+                } else if (component instanceof AbstractButton) {
+                    ((AbstractButton) component).setText(text);
+                } else {
+                    ((JTextComponent) component).setText(text);
+                }
+                break;
+            }
+            case VALUE: {
+                final int value = ((Number) latest.get()).intValue();
+                if (component instanceof JProgressBar) {
+                    ((JProgressBar) component).setValue(value);
+                } else {
+                    ((JSlider) component).setValue(value);
+                }
+                break;
+            }
+            default:
+                break;
+        }
+        if (count > 0) {
+            subscription.request(count);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.adashrod.swingoutxml.binding;
+
+import javax.swing.Timer;
+import java.awt.event.ActionEvent;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs pending binding updates on the EDT at most once per frame. Anything with changes to deliver schedules itself
+ * once, and all of the scheduled updates are run together when the frame's timer fires, so values that change
+ * thousands of times per second cost one EDT task per frame. An exception thrown by one update doesn't stop the others;
+ * after the frame, the first one is rethrown on the EDT, with the rest suppressed.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class FrameScheduler {
+    /**
+     * Something with pending changes to flush on the EDT
+     */
+    interface Flushable {
+        void flush();
+    }
+
+    private static final Queue<Flushable> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean scheduled = new AtomicBoolean();
+    private static final Timer timer = new Timer(16, (final ActionEvent e) -> { runFrame(); });
+
+    static {
+        timer.setRepeats(false);
+    }
+
+    /**
+     * @param frameMillis minimum time between batches of updates, 16 by default for 60 frames per second
+     */
+    public static void setFrameMillis(final int frameMillis) {
+        if (frameMillis <= 0) {
+            throw new IllegalArgumentException(String.format("frameMillis must be positive: %d", frameMillis));
+        }
+        timer.setInitialDelay(frameMillis);
+        timer.setDelay(frameMillis);
+    }
+
+    /**
+     * Schedules flushable to be flushed in the next frame. Callers should only schedule once until they're flushed.
+     * Can be called from any thread.
+     */
+    static void schedule(final Flushable flushable) {
+        pending.add(flushable);
+        if (scheduled.compareAndSet(false, true)) {
+            timer.start();
+        }
+    }
+
+    private static void runFrame() {
+        scheduled.set(false);
+        RuntimeException failure = null;
+        // only run what was scheduled before this frame started, so that updates that schedule more can't loop forever
+        for (int count = pending.size(); count > 0; count--) {
+            final Flushable flushable = pending.poll();
+            if (flushable == null) {
+                break;
+            }
+            try {
+                flushable.flush();
+            } catch (final RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+            timer.start();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
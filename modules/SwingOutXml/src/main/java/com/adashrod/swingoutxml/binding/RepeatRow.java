@@ -0,0 +1,12 @@
+package com.adashrod.swingoutxml.binding;
+
+/**
+ * Implemented by components that are the rows of a &lt;repeat&gt; element, to receive the item they show. setItem() is
+ * called on the EDT after the row is created, and again when the row is reused for a new item with the same key.
+ * @param <T> type of the items
+ * @see Repeater
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public interface RepeatRow<T> {
+    void setItem(T item);
+}
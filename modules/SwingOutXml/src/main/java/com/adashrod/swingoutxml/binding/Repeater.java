@@ -0,0 +1,297 @@
+package com.adashrod.swingoutxml.binding;
+
+import com.adashrod.swingoutxml.util.ReflectionUtils;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.HierarchyEvent;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps one row component per item of a collection in a container, for the &lt;repeat&gt; element:
+ * <j-panel layout="BoxLayout" layout-constructor-args="this, BoxLayout.Y_AXIS">
+ *     <j-label>Orders</j-label>
+ *     <repeat items="orders" key="id">
+ *         <com.example.OrderRow/>
+ *     </repeat>
+ * </j-panel>
+ * ...
+ * public class OrderWindow extends JFrame {
+ *     BoundValue<List<Order>> orders = new BoundValue<>(Collections.emptyList());
+ *     ...
+ *
+ * The child of the repeat element is the row template; it's instantiated once per item, and the rows are placed in the
+ * parent container where the repeat element is. The row template isn't compiled into anything: each new row is built by
+ * SwingOutXml interpreting the template element again, like any other element of the template (the XML itself is only
+ * parsed once), so creating a row costs about as much as creating the same element elsewhere. Reusing rows by key is
+ * what keeps updates cheap. Rows that implement {@link RepeatRow} get their item with setItem();
+ * labels and buttons that don't get String.valueOf(item) as their text. Elements in the row template can't have IDs,
+ * since IDs are global.
+ *
+ * When items is a {@link BoundValue}, the rows are reconciled with the new collection every time it's set: rows are
+ * matched to items by key, so rows of items that are still present are reused and moved into the new order without
+ * being rebuilt, rows are only created for new keys, and rows of missing keys are removed. Reordering keeps the longest
+ * run of reused rows that are already in the right relative order (the longest increasing subsequence of their old
+ * positions) where they are and only moves the others, so moving one row out of n costs one move, not n. Reused rows get setItem()
+ * only if the item is a different instance, so items should be replaced, not modified in place. The key is the item
+ * itself if key is omitted, otherwise a property path of the item like "id" or "account.number", where each part is
+ * a getter (getId() or isId()), a method (id()), or a field (id). Keys must be unique and implement equals() and
+ * hashCode().
+ * The BoundValue only has a listener for the rows while the parent container is displayable, i.e. while its window is
+ * shown or packed: the listener is removed when the parent stops being displayable, e.g. when its window is disposed, so
+ * a BoundValue that outlives the window doesn't keep it reachable, and it's added again, after reconciling the rows with
+ * the current value, if the parent becomes displayable again.
+ *
+ * Components that are siblings of the rows and come before the repeat element shouldn't be added or removed later,
+ * since the rows' position is tracked by index.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class Repeater {
+    /**
+     * Creates a row component from the row template
+     */
+    @FunctionalInterface
+    public interface RowFactory {
+        JComponent createRow();
+    }
+
+    private final Container parent;
+    private final Object constraints;
+    private final String[] keyPath;
+    private final RowFactory rowFactory;
+    private final Map<String, Map<Class<?>, Object>> accessors = new HashMap<>();
+    private Map<Object, Row> rowsByKey = new HashMap<>();
+    private List<Row> rows = new ArrayList<>();
+    private int anchor;
+
+    /**
+     * @param parent      container to put rows in, starting at its current component count
+     * @param constraints layout constraints for each row, or null
+     * @param key         property path of the key of each item, or null to use items as their own keys
+     * @param rowFactory  creates row components
+     */
+    public Repeater(final Container parent, final Object constraints, final String key, final RowFactory rowFactory) {
+        this.parent = parent;
+        this.constraints = constraints;
+        this.keyPath = key == null || key.trim().isEmpty() ? new String[0] : key.trim().split("\\s*\\.\\s*");
+        this.rowFactory = rowFactory;
+        this.anchor = parent.getComponentCount();
+    }
+
+    /**
+     * @return the current row components, in order
+     */
+    public List<JComponent> getRows() {
+        final List<JComponent> components = new ArrayList<>(rows.size());
+        for (final Row row: rows) {
+            components.add(row.component);
+        }
+        return components;
+    }
+
+    /**
+     * Reconciles the rows with the value of items now, and every time it's set while the parent is displayable. Must be
+     * called on the EDT.
+     * @param items      value holding the items
+     * @param toIterable converts the value to the items, e.g. an array to a List
+     */
+    public <T> void follow(final BoundValue<T> items, final Function<? super T, ? extends Iterable<?>> toIterable) {
+        final BoundValue.Listener<T> listener = (final T value) -> { update(toIterable.apply(value)); };
+        update(toIterable.apply(items.get()));
+        if (parent.isDisplayable()) {
+            items.addListener(listener);
+        }
+        parent.addHierarchyListener((final HierarchyEvent e) -> {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0) {
+                items.removeListener(listener);
+                if (parent.isDisplayable()) {
+                    update(toIterable.apply(items.get()));
+                    items.addListener(listener);
+                }
+            }
+        });
+    }
+
+    /**
+     * Reconciles the rows with items. Must be called on the EDT.
+     * @param items the new items, or null for none
+     * @throws IllegalArgumentException if two items have the same key
+     */
+    public void update(final Iterable<?> items) {
+        if (!rows.isEmpty()) {
+            anchor = parent.getComponentZOrder(rows.get(0).component);
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).oldIndex = i;
+        }
+        final Map<Object, Row> oldRowsByKey = rowsByKey;
+        final Map<Object, Row> newRowsByKey = new HashMap<>();
+        final List<Row> newRows = new ArrayList<>();
+        boolean changed = false;
+        if (items != null) {
+            for (final Object item: items) {
+                final Object key = keyOf(item);
+                if (newRowsByKey.containsKey(key)) {
+                    throw new IllegalArgumentException(String.format("Duplicate key in repeat items: %s", key));
+                }
+                Row row = oldRowsByKey.remove(key);
+                if (row == null) {
+                    row = new Row(rowFactory.createRow(), item);
+                    row.oldIndex = -1;
+                    setItem(row);
+                } else if (row.item != item) {
+                    row.item = item;
+                    setItem(row);
+                }
+                newRowsByKey.put(key, row);
+                newRows.add(row);
+            }
+        }
+        for (final Row removed: oldRowsByKey.values()) {
+            parent.remove(removed.component);
+            changed = true;
+        }
+        // the remaining old rows are contiguous from anchor, in their old order. Going backwards, every row that isn't in
+        // place is put right before the row that follows it, which is already where it belongs.
+        final boolean[] inPlace = longestIncreasingRun(newRows);
+        // oldRowsByKey now only has the removed rows
+        int blockEnd = anchor + rows.size() - oldRowsByKey.size();
+        for (int i = newRows.size() - 1; i >= 0; i--) {
+            if (inPlace[i]) {
+                continue;
+            }
+            final Component component = newRows.get(i).component;
+            final int next = i + 1 < newRows.size() ? parent.getComponentZOrder(newRows.get(i + 1).component) : blockEnd;
+            if (component.getParent() != parent) {
+                parent.add(component, constraints, next);
+                blockEnd++;
+            } else {
+                parent.setComponentZOrder(component, parent.getComponentZOrder(component) < next ? next - 1 : next);
+            }
+            changed = true;
+        }
+        rowsByKey = newRowsByKey;
+        rows = newRows;
+        if (changed) {
+            parent.revalidate();
+            parent.repaint();
+        }
+    }
+
+    /**
+     * Finds the reused rows that can stay where they are: a longest subsequence of rows whose old indices increase
+     * @return for each row, true if it's in that subsequence
+     */
+    private static boolean[] longestIncreasingRun(final List<Row> rows) {
+        final int n = rows.size();
+        // tails[k]: index in rows of the smallest old index that ends an increasing subsequence of length k + 1
+        final int[] tails = new int[n];
+        final int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            final int oldIndex = rows.get(i).oldIndex;
+            if (oldIndex < 0) {
+                continue;
+            }
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (rows.get(tails[middle]).oldIndex < oldIndex) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+        final boolean[] inPlace = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1, k = length; k > 0; i = previous[i], k--) {
+            inPlace[i] = true;
+        }
+        return inPlace;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setItem(final Row row) {
+        if (row.component instanceof RepeatRow) {
+            ((RepeatRow<Object>) row.component).setItem(row.item);
+        } else if (row.component instanceof JLabel) {
+            ((JLabel) row.component).setText(String.valueOf(row.item));
+        } else if (row.component instanceof AbstractButton) {
+            ((AbstractButton) row.component).setText(String.valueOf(row.item));
+        }
+    }
+
+    private Object keyOf(final Object item) {
+        Object value = item;
+        for (final String part: keyPath) {
+            if (value == null) {
+                return null;
+            }
+            value = get(value, part);
+        }
+        return value;
+    }
+
+    /**
+     * Gets a property of an object, caching how the property is accessed for each class
+     */
+    private Object get(final Object object, final String property) {
+        final Map<Class<?>, Object> byClass = accessors.computeIfAbsent(property, (final String p) -> { return new HashMap<>(); });
+        Object accessor = byClass.get(object.getClass());
+        if (accessor == null) {
+            accessor = findAccessor(object.getClass(), property);
+            byClass.put(object.getClass(), accessor);
+        }
+        try {
+            return accessor instanceof Method ? ((Method) accessor).invoke(object) : ((Field) accessor).get(object);
+        } catch (final IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException(String.format("Unable to get key %s of %s", property, object), e);
+        }
+    }
+
+    private static Object findAccessor(final Class<?> c, final String property) {
+        final String capitalized = Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (final String name: new String[]{"get" + capitalized, "is" + capitalized, property}) {
+            try {
+                final Method method = c.getMethod(name);
+                method.trySetAccessible();
+                return method;
+            } catch (final NoSuchMethodException ignored) {}
+        }
+        final Field field = ReflectionUtils.getDeclaredFieldHierarchical(c, property);
+        if (field == null) {
+            throw new IllegalArgumentException(String.format("Unable to find key property %s in %s", property, c.getName()));
+        }
+        return field;
+    }
+
+    private static class Row {
+        final JComponent component;
+        Object item;
+        /**
+         * index in the rows before the current update, or -1 for a new row
+         */
+        int oldIndex;
+
+        Row(final JComponent component, final Object item) {
+            this.component = component;
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.adashrod.swingoutxml.binding;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A stream of lines for log consoles, shown in text areas bound to it with the stream attribute:
+ * <j-text-area id="console" stream="log" editable="false"/>
+ * <j-scroll-pane constructor-args="{id:console}"/>
+ * ...
+ * public class LogWindow extends JFrame {
+ *     TextStream log = new TextStream(10000);
+ *     ...
+ *     log.append("connected");    // from any thread
+ *
+ * {@link TextStream#append(CharSequence)} can be called from any thread; it only adds the line to a lock-free queue.
+ * Queued lines are inserted into the bound text areas by the {@link FrameScheduler} once per frame, in one insert per
+ * frame, after which the oldest lines are removed so that no more than maxLines lines are kept. If producers append
+ * more than maxLines lines within a frame, the oldest queued lines are dropped before they're inserted, since they
+ * would be removed right away. Text areas whose caret was at the end stay scrolled to the end.
+ *
+ * A text area only gets lines while it's displayable, i.e. while its window is shown or packed: the stream only
+ * references it from then until it stops being displayable, e.g. when its window is disposed, so a stream that outlives
+ * its windows doesn't keep them reachable. Lines that were flushed while a text area wasn't displayable aren't shown in
+ * it.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class TextStream implements FrameScheduler.Flushable {
+    private final int maxLines;
+    private final Queue<CharSequence> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final List<JTextComponent> textComponents = new CopyOnWriteArrayList<>();
+    private final StringBuilder batch = new StringBuilder();
+
+    /**
+     * @param maxLines maximum number of lines to keep in the text areas
+     */
+    public TextStream(final int maxLines) {
+        if (maxLines <= 0) {
+            throw new IllegalArgumentException(String.format("maxLines must be positive: %d", maxLines));
+        }
+        this.maxLines = maxLines;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Queues a line to be appended; a newline is added after it
+     * @param line the line
+     */
+    public void append(final CharSequence line) {
+        queue.add(line);
+        if (queued.incrementAndGet() > maxLines && queue.poll() != null) {
+            queued.decrementAndGet();
+        }
+        if (scheduled.compareAndSet(false, true)) {
+            FrameScheduler.schedule(this);
+        }
+    }
+
+    /**
+     * Shows the stream in a text component, which is normally a JTextArea, while the component is displayable. Must be
+     * called on the EDT.
+     * @param textComponent component to append lines to
+     */
+    public void attach(final JTextComponent textComponent) {
+        if (textComponent.getClientProperty(this) != null) {
+            return;
+        }
+        // the listener is kept by the component, keyed by this stream, so that the stream doesn't reference the
+        // component while it isn't displayable
+        final HierarchyListener displayabilityListener = (final HierarchyEvent e) -> {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0) {
+                textComponents.remove(textComponent);
+                if (textComponent.isDisplayable()) {
+                    textComponents.add(textComponent);
+                }
+            }
+        };
+        textComponent.putClientProperty(this, displayabilityListener);
+        textComponent.addHierarchyListener(displayabilityListener);
+        if (textComponent.isDisplayable()) {
+            textComponents.add(textComponent);
+        }
+    }
+
+    /**
+     * Stops showing the stream in a text component. Must be called on the EDT.
+     * @param textComponent component to stop appending lines to
+     */
+    public void detach(final JTextComponent textComponent) {
+        final HierarchyListener displayabilityListener = (HierarchyListener) textComponent.getClientProperty(this);
+        if (displayabilityListener != null) {
+            textComponent.removeHierarchyListener(displayabilityListener);
+            textComponent.putClientProperty(this, null);
+        }
+        textComponents.remove(textComponent);
+    }
+
+    /**
+     * Inserts the queued lines and trims the oldest lines, on the EDT
+     */
+    @Override
+    public void flush() {
+        scheduled.set(false);
+        batch.setLength(0);
+        CharSequence line;
+        while ((line = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.append(line).append('\n');
+        }
+        if (batch.length() == 0) {
+            return;
+        }
+        final String text = batch.toString();
+        if (batch.capacity() > 1 << 20) {
+            // don't hold on to the buffer from a burst
+            batch.setLength(0);
+            batch.trimToSize();
+        }
+        for (final JTextComponent textComponent: textComponents) {
+            append(textComponent, text);
+        }
+    }
+
+    private void append(final JTextComponent textComponent, final String text) {
+        final Document document = textComponent.getDocument();
+        final boolean atEnd = textComponent.getCaretPosition() == document.getLength();
+        try {
+            document.insertString(document.getLength(), text, null);
+            final Element root = document.getDefaultRootElement();
+            // the last element is the empty line after the last newline
+            final int excess = root.getElementCount() - 1 - maxLines;
+            if (excess > 0) {
+                document.remove(0, root.getElement(excess).getStartOffset());
+            }
+        } catch (final BadLocationException ble) {
+            // the offsets all come from the document itself
+            throw new IllegalStateException(ble);
+        }
+        if (atEnd) {
+            textComponent.setCaretPosition(document.getLength());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.adashrod.swingoutxml.component;
+
+import java.awt.Container;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * A factory for the component (or container) that an XML element creates, e.g. a JButton for j-button. Factories are
+ * registered in {@link ComponentFactoryRegistry}. The built-in factories call constructors directly, without reflection.
+ * @param <T> type of the component created
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public interface ComponentFactory<T extends Container> {
+    /**
+     * @return the class of the components created by this factory
+     */
+    Class<T> getComponentClass();
+
+    /**
+     * Creates a new component using its no-arg constructor
+     * @return the new component
+     * @throws InvocationTargetException if the constructor throws an exception
+     * @throws IllegalArgumentException if the component class can't be instantiated without arguments
+     */
+    T create() throws InvocationTargetException;
+
+    /**
+     * Creates a factory that uses constructor to create components
+     * @param componentClass class of the components
+     * @param constructor    function that creates a component, e.g. JButton::new
+     * @param <T> type of the component created
+     * @return the factory
+     */
+    static <T extends Container> ComponentFactory<T> of(final Class<T> componentClass, final Supplier<T> constructor) {
+        return new ComponentFactory<T>() {
+            @Override
+            public Class<T> getComponentClass() {
+                return componentClass;
+            }
+
+            @Override
+            public T create() {
+                return constructor.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.adashrod.swingoutxml.component;
+
+/**
+ * Service provider interface for registering component factories with {@link ComponentFactoryRegistry}. Libraries that
+ * supply custom components can implement this and list the implementation in
+ * META-INF/services/com.adashrod.swingoutxml.component.ComponentFactoryProvider so that their components are created
+ * without reflection and can be used in XML with a short name.
+ *
+ * Example:
+ * public class FancyFactories implements ComponentFactoryProvider {
+ *     \@Override
+ *     public void registerFactories() {
+ *         ComponentFactoryRegistry.register("FancyPanel", FancyPanel.class, FancyPanel::new);
+ *     }
+ * }
+ * after which <fancy-panel> or <FancyPanel> can be used in XML.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public interface ComponentFactoryProvider {
+    /**
+     * Called once, when {@link ComponentFactoryRegistry} is initialized. Implementations should call
+     * {@link ComponentFactoryRegistry#register(String, Class, java.util.function.Supplier)} for each factory they provide.
+     */
+    void registerFactories();
+}
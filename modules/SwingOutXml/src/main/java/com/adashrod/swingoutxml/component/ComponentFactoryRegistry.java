@@ -0,0 +1,236 @@
+package com.adashrod.swingoutxml.component;
+
+import com.adashrod.swingoutxml.util.NameUtils;
+
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
+import javax.swing.JComboBox;
+import javax.swing.JComponent;
+import javax.swing.JDesktopPane;
+import javax.swing.JDialog;
+import javax.swing.JEditorPane;
+import javax.swing.JFormattedTextField;
+import javax.swing.JFrame;
+import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
+import javax.swing.JLayeredPane;
+import javax.swing.JList;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JPanel;
+import javax.swing.JPasswordField;
+import javax.swing.JPopupMenu;
+import javax.swing.JProgressBar;
+import javax.swing.JRadioButton;
+import javax.swing.JRadioButtonMenuItem;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.JSeparator;
+import javax.swing.JSlider;
+import javax.swing.JSpinner;
+import javax.swing.JSplitPane;
+import javax.swing.JTabbedPane;
+import javax.swing.JTable;
+import javax.swing.JTextArea;
+import javax.swing.JTextField;
+import javax.swing.JTextPane;
+import javax.swing.JToggleButton;
+import javax.swing.JToolBar;
+import javax.swing.JTree;
+import javax.swing.JWindow;
+import java.awt.Container;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A registry of the {@link ComponentFactory}s used to create components from XML elements. Factories are registered
+ * by class name, e.g. "JButton", and looked up by element tag name, e.g. "j-button" or "JButton". A tag name that
+ * isn't registered is treated as a fully-qualified class name; a reflective factory is created for that class the first
+ * time it's used. Lookups are cached per tag name, so finding the factory for an element is a single hash lookup.
+ *
+ * Factories for the common Swing components are registered by default. Others can be registered by calling
+ * {@link ComponentFactoryRegistry#register(String, Class, Supplier)} directly or by providing a
+ * {@link ComponentFactoryProvider} through {@link java.util.ServiceLoader}.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class ComponentFactoryRegistry {
+    private static final MethodType erasedConstructorType = MethodType.methodType(Container.class);
+
+    /**
+     * class name -> factory
+     */
+    private static final Map<String, ComponentFactory<?>> factories = new ConcurrentHashMap<>();
+    /**
+     * tag name -> factory, including reflective factories for fully-qualified class names
+     */
+    private static final Map<String, ComponentFactory<?>> tagCache = new ConcurrentHashMap<>();
+
+    static {
+        register("JFrame", JFrame.class, JFrame::new);
+        register("JDialog", JDialog.class, JDialog::new);
+        register("JWindow", JWindow.class, JWindow::new);
+
+        // abstract; SwingOutXml uses the type of the bound field instead
+        register(new AbstractComponentFactory<>(Container.class));
+        register(new AbstractComponentFactory<>(JComponent.class));
+
+        register("JButton", JButton.class, JButton::new);
+        register("JCheckBox", JCheckBox.class, JCheckBox::new);
+        register("JCheckBoxMenuItem", JCheckBoxMenuItem.class, JCheckBoxMenuItem::new);
+        register("JComboBox", JComboBox.class, JComboBox::new);
+        register("JDesktopPane", JDesktopPane.class, JDesktopPane::new);
+        register("JEditorPane", JEditorPane.class, JEditorPane::new);
+        register("JFormattedTextField", JFormattedTextField.class, JFormattedTextField::new);
+        register("JInternalFrame", JInternalFrame.class, JInternalFrame::new);
+        register("JLabel", JLabel.class, JLabel::new);
+        register("JLayeredPane", JLayeredPane.class, JLayeredPane::new);
+        register("JList", JList.class, JList::new);
+        register("JMenu", JMenu.class, JMenu::new);
+        register("JMenuBar", JMenuBar.class, JMenuBar::new);
+        register("JMenuItem", JMenuItem.class, JMenuItem::new);
+        register("JPanel", JPanel.class, JPanel::new);
+        register("JPasswordField", JPasswordField.class, JPasswordField::new);
+        register("JPopupMenu", JPopupMenu.class, JPopupMenu::new);
+        register("JProgressBar", JProgressBar.class, JProgressBar::new);
+        register("JRadioButton", JRadioButton.class, JRadioButton::new);
+        register("JRadioButtonMenuItem", JRadioButtonMenuItem.class, JRadioButtonMenuItem::new);
+        register("JScrollBar", JScrollBar.class, JScrollBar::new);
+        register("JScrollPane", JScrollPane.class, JScrollPane::new);
+        register("JSeparator", JSeparator.class, JSeparator::new);
+        register("JSlider", JSlider.class, JSlider::new);
+        register("JSpinner", JSpinner.class, JSpinner::new);
+        register("JSplitPane", JSplitPane.class, JSplitPane::new);
+        register("JTabbedPane", JTabbedPane.class, JTabbedPane::new);
+        register("JTable", JTable.class, JTable::new);
+        register("JTextArea", JTextArea.class, JTextArea::new);
+        register("JTextField", JTextField.class, JTextField::new);
+        register("JTextPane", JTextPane.class, JTextPane::new);
+        register("JToggleButton", JToggleButton.class, JToggleButton::new);
+        register("JToolBar", JToolBar.class, JToolBar::new);
+        register("JTree", JTree.class, JTree::new);
+
+        for (final ComponentFactoryProvider provider: ServiceLoader.load(ComponentFactoryProvider.class)) {
+            provider.registerFactories();
+        }
+    }
+
+    /**
+     * Registers a factory for elements named name, in either camel or dashed case, e.g. "JButton" for both
+     * &lt;JButton&gt; and &lt;j-button&gt;. A later registration for the same name replaces the earlier one.
+     * @param name           camel-case name of the element, usually the simple name of componentClass
+     * @param componentClass class of the components created
+     * @param constructor    function that creates a component, e.g. JButton::new
+     * @param <T> type of the component created
+     */
+    public static <T extends Container> void register(final String name, final Class<T> componentClass, final Supplier<T> constructor) {
+        factories.put(name, ComponentFactory.of(componentClass, constructor));
+        tagCache.clear();
+    }
+
+    private static void register(final ComponentFactory<?> factory) {
+        factories.put(factory.getComponentClass().getSimpleName(), factory);
+        tagCache.clear();
+    }
+
+    /**
+     * Finds the factory for an XML element
+     * @param tagName the element's tag name, e.g. "j-button", "JButton", or "com.package.CustomComponent"
+     * @return the factory
+     * @throws ClassNotFoundException if tagName isn't registered and isn't the name of a class
+     * @throws IllegalArgumentException if tagName is the name of a class that doesn't extend Container
+     */
+    public static ComponentFactory<?> getFactory(final String tagName) throws ClassNotFoundException {
+        final ComponentFactory<?> cached = tagCache.get(tagName);
+        if (cached != null) {
+            return cached;
+        }
+        final String className = NameUtils.getClassNameForElement(tagName);
+        ComponentFactory<?> factory = factories.get(className);
+        if (factory == null) {
+            final Class<?> customClass = Class.forName(className);
+            if (!Container.class.isAssignableFrom(customClass)) {
+                throw new IllegalArgumentException(String.format("%s doesn't extend Container", className));
+            }
+            factory = reflectiveFactory(customClass.asSubclass(Container.class));
+        }
+        tagCache.put(tagName, factory);
+        return factory;
+    }
+
+    private static <T extends Container> ComponentFactory<T> reflectiveFactory(final Class<T> componentClass) {
+        if (Modifier.isAbstract(componentClass.getModifiers())) {
+            return new AbstractComponentFactory<>(componentClass);
+        }
+        MethodHandle constructor;
+        try {
+            constructor = MethodHandles.publicLookup().findConstructor(componentClass, MethodType.methodType(void.class))
+                .asType(erasedConstructorType);
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            // the class might only be used with constructor-args
+            constructor = null;
+        }
+        return new ReflectiveComponentFactory<>(componentClass, constructor);
+    }
+
+    /**
+     * A factory for a class that can't be instantiated directly. These are only used to look up the class.
+     */
+    private static class AbstractComponentFactory<T extends Container> implements ComponentFactory<T> {
+        private final Class<T> componentClass;
+
+        AbstractComponentFactory(final Class<T> componentClass) {
+            this.componentClass = componentClass;
+        }
+
+        @Override
+        public Class<T> getComponentClass() {
+            return componentClass;
+        }
+
+        @Override
+        public T create() {
+            throw new IllegalArgumentException(String.format("Unable to instantiate %s", componentClass.getName()));
+        }
+    }
+
+    /**
+     * A factory for a class that isn't registered, which calls its public no-arg constructor through a MethodHandle
+     */
+    private static class ReflectiveComponentFactory<T extends Container> implements ComponentFactory<T> {
+        private final Class<T> componentClass;
+        private final MethodHandle constructor;
+
+        ReflectiveComponentFactory(final Class<T> componentClass, final MethodHandle constructor) {
+            this.componentClass = componentClass;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public Class<T> getComponentClass() {
+            return componentClass;
+        }
+
+        @Override
+        public T create() throws InvocationTargetException {
+            if (constructor == null) {
+                throw new IllegalArgumentException(String.format("Default constructor for %s is not public", componentClass.getName()));
+            }
+            try {
+                return componentClass.cast((Container) constructor.invokeExact());
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+    }
+}
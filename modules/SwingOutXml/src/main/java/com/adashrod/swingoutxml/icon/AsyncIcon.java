@@ -0,0 +1,101 @@
+package com.adashrod.swingoutxml.icon;
+
+import javax.swing.Icon;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An Icon whose image is decoded in the background by {@link IconCache}. Until the image is ready, it has the size of
+ * the cache's placeholder icon and paints the placeholder. When the image is ready, the components that the icon was
+ * attached to are revalidated and repainted on the EDT, which is the "swap" from placeholder to image. There is one
+ * AsyncIcon per path while it's in use, so components showing the same icon share one instance and one decoded image.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class AsyncIcon implements Icon {
+    private final String path;
+    private final Icon placeholder;
+    private final List<WeakReference<Component>> components = new ArrayList<>();
+    private volatile Image image;
+
+    AsyncIcon(final String path, final Icon placeholder) {
+        this.path = path;
+        this.placeholder = placeholder;
+    }
+
+    /**
+     * @return the path that the image was loaded from
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return true once the image has been decoded
+     */
+    public boolean isLoaded() {
+        return image != null;
+    }
+
+    /**
+     * Registers a component to be revalidated and repainted when the image is ready, since it will probably change the
+     * icon's size. Components are held weakly. Must be called on the EDT.
+     * @param component a component that shows this icon
+     */
+    public void attach(final Component component) {
+        if (image == null) {
+            components.add(new WeakReference<>(component));
+        }
+    }
+
+    /**
+     * Called on the EDT when the image has been decoded
+     */
+    void loaded(final Image image) {
+        this.image = image;
+        for (final Iterator<WeakReference<Component>> iterator = components.iterator(); iterator.hasNext();) {
+            final Component component = iterator.next().get();
+            iterator.remove();
+            if (component != null) {
+                component.revalidate();
+                component.repaint();
+            }
+        }
+    }
+
+    int getByteSize() {
+        final Image i = image;
+        return i == null ? 0 : i.getWidth(null) * i.getHeight(null) * 4;
+    }
+
+    @Override
+    public void paintIcon(final Component c, final Graphics g, final int x, final int y) {
+        final Image i = image;
+        if (i != null) {
+            g.drawImage(i, x, y, c);
+        } else if (placeholder != null) {
+            placeholder.paintIcon(c, g, x, y);
+        }
+    }
+
+    @Override
+    public int getIconWidth() {
+        final Image i = image;
+        return i != null ? i.getWidth(null) : placeholder != null ? placeholder.getIconWidth() : 0;
+    }
+
+    @Override
+    public int getIconHeight() {
+        final Image i = image;
+        return i != null ? i.getHeight(null) : placeholder != null ? placeholder.getIconHeight() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AsyncIcon(%s)", path);
+    }
+}
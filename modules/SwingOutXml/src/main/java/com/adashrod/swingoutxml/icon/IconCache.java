@@ -0,0 +1,216 @@
+package com.adashrod.swingoutxml.icon;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+import javax.swing.SwingUtilities;
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A process-wide cache of icons for the icon attribute. Each path is resolved the same way as templates: first as a
+ * classpath resource, then as a file. Images are decoded on a background executor; the {@link AsyncIcon} that's
+ * returned shows a placeholder until then. If an image can't be read, its icon keeps showing the placeholder and is
+ * dropped from the cache, so the next get() of the path creates a new icon and tries again, e.g. after a transient
+ * failure or once the file exists. The IOException is thrown from the executor's task, wrapped in an
+ * UncheckedIOException, so it reaches the executor's thread's uncaught exception handler.
+ *
+ * Icons that are in use are shared: the cache has a weak reference to every icon it has created, so as long as any
+ * component shows an icon, getting the same path returns the same instance, across windows. In addition, the most
+ * recently used icons are kept strongly, up to maxBytes of decoded pixels, so that icons that are dropped and then
+ * needed again, e.g. by a dialog that's opened repeatedly, don't have to be decoded again. Icons beyond that are only
+ * weakly reachable and are collected once no component uses them.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class IconCache {
+    private static final Map<String, IconReference> icons = new HashMap<>();
+    private static final ReferenceQueue<AsyncIcon> collectedIcons = new ReferenceQueue<>();
+    private static final LinkedHashMap<String, AsyncIcon> recentIcons = new LinkedHashMap<>(16, 0.75f, true);
+    private static long recentBytes;
+    private static long maxBytes = 32L * 1024 * 1024;
+    private static Icon placeholder = new EmptyIcon(16, 16);
+    private static Executor executor;
+
+    /**
+     * Gets the icon for a path, creating it and starting to decode its image if it isn't in the cache
+     * @param path classpath resource or file path of an image in a format supported by ImageIO
+     * @return the shared icon for the path
+     */
+    public static synchronized AsyncIcon get(final String path) {
+        expunge();
+        final IconReference reference = icons.get(path);
+        AsyncIcon icon = reference != null ? reference.get() : null;
+        if (icon == null) {
+            icon = new AsyncIcon(path, placeholder);
+            icons.put(path, new IconReference(icon));
+            decode(icon);
+        } else if (recentIcons.containsKey(path)) {
+            // touch for LRU order
+            recentIcons.get(path);
+        }
+        return icon;
+    }
+
+    /**
+     * @param maxBytes number of bytes of decoded images to keep strongly reachable for reuse
+     */
+    public static synchronized void setMaxBytes(final long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException(String.format("maxBytes must not be negative: %d", maxBytes));
+        }
+        IconCache.maxBytes = maxBytes;
+        trim();
+    }
+
+    /**
+     * @param placeholder icon to show, and size to reserve, until images are decoded; affects icons created afterwards
+     */
+    public static synchronized void setPlaceholder(final Icon placeholder) {
+        IconCache.placeholder = placeholder;
+    }
+
+    /**
+     * @param executor executor to decode images on; the default is a pool of daemon threads
+     */
+    public static synchronized void setExecutor(final Executor executor) {
+        IconCache.executor = executor;
+    }
+
+    /**
+     * Drops all of the strongly-held icons. Icons that are in use are still shared.
+     */
+    public static synchronized void clear() {
+        recentIcons.clear();
+        recentBytes = 0;
+    }
+
+    private static void decode(final AsyncIcon icon) {
+        getExecutor().execute(() -> {
+            final BufferedImage image;
+            try {
+                final URL url = resolve(icon.getPath());
+                image = ImageIO.read(url);
+                if (image == null) {
+                    throw new IOException(String.format("No ImageIO reader for %s", url));
+                }
+            } catch (final IOException ioe) {
+                // the icon keeps showing the placeholder
+                forget(icon);
+                throw new UncheckedIOException(String.format("Couldn't decode icon %s", icon.getPath()), ioe);
+            }
+            SwingUtilities.invokeLater(() -> {
+                icon.loaded(image);
+                keep(icon);
+            });
+        });
+    }
+
+    private static URL resolve(final String path) throws IOException {
+        final URL resource = IconCache.class.getResource(path);
+        if (resource != null) {
+            return resource;
+        }
+        final File file = new File(path);
+        if (!file.isFile()) {
+            throw new IOException(String.format("Icon not found on the classpath or file system: %s", path));
+        }
+        return file.toURI().toURL();
+    }
+
+    /**
+     * Removes the entry of an icon whose image couldn't be decoded, unless the path already has a newer icon
+     */
+    private static synchronized void forget(final AsyncIcon icon) {
+        final IconReference reference = icons.get(icon.getPath());
+        if (reference != null && reference.get() == icon) {
+            icons.remove(icon.getPath());
+        }
+    }
+
+    private static synchronized void keep(final AsyncIcon icon) {
+        if (recentIcons.put(icon.getPath(), icon) == null) {
+            recentBytes += icon.getByteSize();
+        }
+        trim();
+    }
+
+    private static void trim() {
+        final Iterator<AsyncIcon> iterator = recentIcons.values().iterator();
+        while (recentBytes > maxBytes && iterator.hasNext()) {
+            recentBytes -= iterator.next().getByteSize();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Removes the entries of icons that have been collected
+     */
+    private static void expunge() {
+        IconReference reference;
+        while ((reference = (IconReference) collectedIcons.poll()) != null) {
+            if (icons.get(reference.path) == reference) {
+                icons.remove(reference.path);
+            }
+        }
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (executor == null) {
+            final AtomicInteger threadCount = new AtomicInteger();
+            final ExecutorService pool = Executors.newFixedThreadPool(Math.min(4, Runtime.getRuntime().availableProcessors()),
+                (final Runnable r) -> {
+                    final Thread thread = new Thread(r, String.format("swingoutxml-icon-%d", threadCount.incrementAndGet()));
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            executor = pool;
+        }
+        return executor;
+    }
+
+    private static class IconReference extends WeakReference<AsyncIcon> {
+        final String path;
+
+        IconReference(final AsyncIcon icon) {
+            super(icon, collectedIcons);
+            this.path = icon.getPath();
+        }
+    }
+
+    private static class EmptyIcon implements Icon {
+        private final int width;
+        private final int height;
+
+        EmptyIcon(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(final Component c, final Graphics g, final int x, final int y) {}
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
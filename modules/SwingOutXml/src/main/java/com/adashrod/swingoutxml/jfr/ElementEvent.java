@@ -0,0 +1,40 @@
+package com.adashrod.swingoutxml.jfr;
+
+import com.adashrod.swingoutxml.util.DomUtils;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import org.w3c.dom.Element;
+
+/**
+ * Base class for the JFR events that are about one element of a template
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Category("SwingOutXml")
+public abstract class ElementEvent extends Event {
+    @Label("Template")
+    String template;
+
+    @Label("Element Tag")
+    String tagName;
+
+    @Label("Element ID")
+    String elementId;
+
+    @Label("Component Class")
+    Class<?> componentClass;
+
+    /**
+     * Sets the fields that identify the element. Should only be called if {@link Event#shouldCommit()} is true, since
+     * it reads the element's attributes.
+     * @param template       path of the template
+     * @param element        the element
+     * @param componentClass class of the component created for the element; null if it wasn't created
+     */
+    public void setElement(final String template, final Element element, final Class<?> componentClass) {
+        this.template = template;
+        tagName = element.getTagName();
+        elementId = DomUtils.getAttribute("id", element);
+        this.componentClass = componentClass;
+    }
+}
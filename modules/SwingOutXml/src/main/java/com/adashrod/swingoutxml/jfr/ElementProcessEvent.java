@@ -0,0 +1,22 @@
+package com.adashrod.swingoutxml.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted for each element processed under the root element of a template: instantiating its component, adding it to
+ * its parent, and binding it
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Name("com.adashrod.swingoutxml.ElementProcess")
+@Label("Template Element")
+@Description("Creating, adding, and binding the component for one template element")
+@Enabled(true)
+@Threshold("1 ms")
+@StackTrace(false)
+public class ElementProcessEvent extends ElementEvent {
+}
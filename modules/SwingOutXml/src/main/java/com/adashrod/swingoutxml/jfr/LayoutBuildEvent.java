@@ -0,0 +1,34 @@
+package com.adashrod.swingoutxml.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted by {@link com.adashrod.swingoutxml.LayoutBuilder#buildLayout(java.util.Collection, java.util.Map, String, java.awt.Container, java.util.List)}
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Name("com.adashrod.swingoutxml.LayoutBuild")
+@Label("Layout Build")
+@Description("Resolving, parsing arguments for, and constructing a LayoutManager")
+@Category("SwingOutXml")
+@Enabled(true)
+@Threshold("1 ms")
+@StackTrace(false)
+public class LayoutBuildEvent extends Event {
+    @Label("Layout")
+    String layout;
+
+    @Label("Container Class")
+    Class<?> containerClass;
+
+    public void setLayout(final String layout, final Class<?> containerClass) {
+        this.layout = layout;
+        this.containerClass = containerClass;
+    }
+}
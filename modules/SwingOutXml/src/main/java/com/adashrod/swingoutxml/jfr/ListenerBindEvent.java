@@ -0,0 +1,27 @@
+package com.adashrod.swingoutxml.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted for each listener field that is added to a component
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Name("com.adashrod.swingoutxml.ListenerBind")
+@Label("Listener Binding")
+@Description("Adding a listener field to the component for a template element")
+@Enabled(true)
+@Threshold("1 ms")
+@StackTrace(false)
+public class ListenerBindEvent extends ElementEvent {
+    @Label("Listener Field")
+    String listenerField;
+
+    public void setListenerField(final String listenerField) {
+        this.listenerField = listenerField;
+    }
+}
@@ -0,0 +1,30 @@
+package com.adashrod.swingoutxml.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted when a template file is located and parsed
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Name("com.adashrod.swingoutxml.TemplateLoad")
+@Label("Template Load")
+@Description("Locating and parsing a template file")
+@Category("SwingOutXml")
+@Enabled(true)
+@Threshold("0 ms")
+@StackTrace(false)
+public class TemplateLoadEvent extends Event {
+    @Label("Template")
+    String template;
+
+    public void setTemplate(final String template) {
+        this.template = template;
+    }
+}
@@ -0,0 +1,40 @@
+package com.adashrod.swingoutxml.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Emitted for each call to {@link com.adashrod.swingoutxml.SwingOutXml#create(Class, Object...)} and
+ * {@link com.adashrod.swingoutxml.SwingOutXml#render(Object, Object...)}
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@Name("com.adashrod.swingoutxml.WindowCreate")
+@Label("Window Create")
+@Description("A whole SwingOutXml.create() or render() call")
+@Category("SwingOutXml")
+@Enabled(true)
+@Threshold("0 ms")
+@StackTrace(true)
+public class WindowCreateEvent extends Event {
+    @Label("Template")
+    String template;
+
+    @Label("Context Class")
+    Class<?> contextClass;
+
+    @Label("Rendered")
+    @Description("true for render(), false for create()")
+    boolean rendered;
+
+    public void setWindow(final String template, final Class<?> contextClass, final boolean rendered) {
+        this.template = template;
+        this.contextClass = contextClass;
+        this.rendered = rendered;
+    }
+}
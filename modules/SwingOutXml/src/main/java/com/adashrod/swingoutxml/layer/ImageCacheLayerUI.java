@@ -0,0 +1,282 @@
+package com.adashrod.swingoutxml.layer;
+
+import javax.swing.JComponent;
+import javax.swing.JLayer;
+import javax.swing.plaf.LayerUI;
+import java.awt.AlphaComposite;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+
+/**
+ * A LayerUI that paints the component it decorates, and all of its descendants, into an offscreen image once and then
+ * paints that image instead of the components, for subtrees that rarely change, e.g. legends, static forms, and
+ * decorative headers. SwingOutXml wraps a component in a JLayer with this UI when its element has cache="image":
+ * <j-panel id="legend" cache="image" layout="GridLayout" layout-constructor-args="0, 2">
+ *     ...
+ * </j-panel>
+ *
+ * The image is a VolatileImage when the screen supports one, so that blitting it is accelerated, and a BufferedImage
+ * otherwise. It's created at the device scale, so the cached subtree looks the same on HiDPI screens.
+ *
+ * The image is painted again when:
+ * - the layer's size changes
+ * - a component in the subtree fires a property change, e.g. after setText(), setForeground(), or setIcon(), or is
+ *   added, removed, moved, resized, shown, or hidden. The UI listens to every component in the subtree, including ones
+ *   that are added later, for this.
+ * - {@link ImageCacheLayerUI#invalidate()} or {@link ImageCacheLayerUI#invalidate(Component)} is called, for changes
+ *   that don't fire property changes, e.g. a custom component whose paintComponent() reads state that changed
+ * - the contents of the VolatileImage are lost
+ * Repaints alone don't invalidate the image: whether the window was exposed, the layer scrolled into view, or a
+ * descendant called repaint(), the layer is repainted from the image. So state that's only shown by repainting, like a
+ * button's rollover and pressed states or a text field's caret, isn't seen, and interactive components shouldn't be
+ * cached. The image is released when the layer stops being displayable.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class ImageCacheLayerUI extends LayerUI<JComponent> {
+    private final HierarchyListener hierarchyListener = (final HierarchyEvent e) -> {
+        if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 && !e.getChanged().isDisplayable()) {
+            release();
+        }
+    };
+    private final SubtreeListener subtreeListener = new SubtreeListener();
+    private JLayer<?> layer;
+    private Image image;
+    private boolean valid;
+    private int width;
+    private int height;
+    private int renderCount;
+
+    /**
+     * @param view the component to cache
+     * @return a new JLayer that caches view
+     */
+    public static JLayer<JComponent> wrap(final JComponent view) {
+        return new JLayer<>(view, new ImageCacheLayerUI());
+    }
+
+    /**
+     * Invalidates the cached image of the nearest cached subtree containing component, if there is one
+     * @param component a cached component or one of its descendants
+     */
+    public static void invalidate(final Component component) {
+        for (Component c = component; c != null; c = c.getParent()) {
+            if (c instanceof JLayer && ((JLayer<?>) c).getUI() instanceof ImageCacheLayerUI) {
+                ((ImageCacheLayerUI) ((JLayer<?>) c).getUI()).invalidate();
+                c.repaint();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Causes the image to be painted again the next time the layer is painted. Must be called on the EDT.
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Invalidates the image and repaints the layer, for changes seen by the subtree listener
+     */
+    private void contentChanged() {
+        valid = false;
+        if (layer != null) {
+            layer.repaint();
+        }
+    }
+
+    /**
+     * @return number of times the subtree has been painted into the image
+     */
+    public int getRenderCount() {
+        return renderCount;
+    }
+
+    @Override
+    public void installUI(final JComponent c) {
+        super.installUI(c);
+        layer = (JLayer<?>) c;
+        c.addHierarchyListener(hierarchyListener);
+        listenTo(layer.getView());
+    }
+
+    @Override
+    public void uninstallUI(final JComponent c) {
+        c.removeHierarchyListener(hierarchyListener);
+        stopListening(layer.getView());
+        layer = null;
+        release();
+        super.uninstallUI(c);
+    }
+
+    @Override
+    public void applyPropertyChange(final PropertyChangeEvent e, final JLayer<? extends JComponent> l) {
+        if ("view".equals(e.getPropertyName())) {
+            stopListening((Component) e.getOldValue());
+            listenTo((Component) e.getNewValue());
+            contentChanged();
+        }
+    }
+
+    private void listenTo(final Component component) {
+        if (component == null) {
+            return;
+        }
+        // removed first so that a component is never listened to twice
+        component.removePropertyChangeListener(subtreeListener);
+        component.addPropertyChangeListener(subtreeListener);
+        component.removeComponentListener(subtreeListener);
+        component.addComponentListener(subtreeListener);
+        if (component instanceof Container) {
+            final Container container = (Container) component;
+            container.removeContainerListener(subtreeListener);
+            container.addContainerListener(subtreeListener);
+            for (final Component child: container.getComponents()) {
+                listenTo(child);
+            }
+        }
+    }
+
+    private void stopListening(final Component component) {
+        if (component == null) {
+            return;
+        }
+        component.removePropertyChangeListener(subtreeListener);
+        component.removeComponentListener(subtreeListener);
+        if (component instanceof Container) {
+            final Container container = (Container) component;
+            container.removeContainerListener(subtreeListener);
+            for (final Component child: container.getComponents()) {
+                stopListening(child);
+            }
+        }
+    }
+
+    @Override
+    public void paint(final Graphics g, final JComponent c) {
+        final int w = c.getWidth();
+        final int h = c.getHeight();
+        if (w <= 0 || h <= 0) {
+            return;
+        }
+        final GraphicsConfiguration configuration = c.getGraphicsConfiguration();
+        final AffineTransform scale = configuration != null ? configuration.getDefaultTransform() : new AffineTransform();
+        final int imageWidth = (int) Math.ceil(w * scale.getScaleX());
+        final int imageHeight = (int) Math.ceil(h * scale.getScaleY());
+        if (image == null || width != imageWidth || height != imageHeight) {
+            release();
+            image = createImage(configuration, imageWidth, imageHeight);
+            width = imageWidth;
+            height = imageHeight;
+        } else if (image instanceof VolatileImage) {
+            final int status = ((VolatileImage) image).validate(configuration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                release();
+                image = createImage(configuration, imageWidth, imageHeight);
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                valid = false;
+            }
+        }
+        if (!valid) {
+            render(c, w, h, scale);
+        }
+        g.drawImage(image, 0, 0, w, h, null);
+        if (image instanceof VolatileImage && ((VolatileImage) image).contentsLost()) {
+            valid = false;
+            c.repaint();
+        }
+    }
+
+    private static Image createImage(final GraphicsConfiguration configuration, final int width, final int height) {
+        if (configuration != null) {
+            final VolatileImage volatileImage = configuration.createCompatibleVolatileImage(width, height, Transparency.TRANSLUCENT);
+            if (volatileImage != null) {
+                return volatileImage;
+            }
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private void render(final JComponent c, final int w, final int h, final AffineTransform scale) {
+        final Graphics2D g = (Graphics2D) image.getGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, width, height);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.scale(scale.getScaleX(), scale.getScaleY());
+            g.setClip(0, 0, w, h);
+            // JLayer.paint() is in progress, so this paints the layer and its view normally
+            super.paint(g, c);
+        } finally {
+            g.dispose();
+        }
+        valid = true;
+        renderCount++;
+    }
+
+    private void release() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+        valid = false;
+    }
+
+    /**
+     * Listens to every component in the cached subtree for changes that make the image out of date
+     */
+    private class SubtreeListener extends ComponentAdapter implements PropertyChangeListener, ContainerListener {
+        @Override
+        public void propertyChange(final PropertyChangeEvent e) {
+            contentChanged();
+        }
+
+        @Override
+        public void componentAdded(final ContainerEvent e) {
+            listenTo(e.getChild());
+            contentChanged();
+        }
+
+        @Override
+        public void componentRemoved(final ContainerEvent e) {
+            stopListening(e.getChild());
+            contentChanged();
+        }
+
+        @Override
+        public void componentResized(final ComponentEvent e) {
+            contentChanged();
+        }
+
+        @Override
+        public void componentMoved(final ComponentEvent e) {
+            contentChanged();
+        }
+
+        @Override
+        public void componentShown(final ComponentEvent e) {
+            contentChanged();
+        }
+
+        @Override
+        public void componentHidden(final ComponentEvent e) {
+            contentChanged();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.adashrod.swingoutxml.layout;
+
+import javax.swing.JPanel;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.LayoutManager;
+import java.awt.Rectangle;
+
+/**
+ * A JPanel that remembers the results of its layout manager: its preferred, minimum, and maximum sizes, and the bounds
+ * the layout gave the children for the size the panel was laid out at. SwingOutXml creates this instead of a JPanel
+ * for the j-panel elements in a subtree whose element has stable-layout="true", for deep, nested forms that rarely
+ * change:
+ * <j-panel stable-layout="true" layout="BoxLayout" layout-constructor-args="this, BoxLayout.Y_AXIS">
+ *     <j-panel layout="GridLayout" layout-constructor-args="0, 2">
+ *         ...
+ *
+ * The results are remembered by the panel, not by wrapping its layout manager, so getLayout() still returns the layout
+ * that the template set, and code like ((CardLayout) panel.getLayout()).show(panel, "next") keeps working. Elements of
+ * other classes, including JPanel subclasses, and panels that are added to the subtree later aren't memoized.
+ *
+ * Swing invalidates every container from a changed component up to its validate root, and containers normally
+ * recompute their layout whenever they're invalidated. This panel recomputes only when something below it changed,
+ * which it tells from the invalidation that Swing already propagates: when it's invalidated, or asked for its sizes or
+ * laid out while it's invalid, and one of its children is also invalid (the child, or something in it, was revalidated,
+ * e.g. after setText() or setFont()), or when children were added, removed, shown, or hidden, or its insets or layout
+ * manager changed. Otherwise, e.g. when it's only invalidated because it was resized, it reuses the remembered sizes
+ * and only lays the children out again if its size changed. So after a change, only the panels between the changed
+ * component and the root of the subtree are laid out again.
+ *
+ * A change that doesn't invalidate a child isn't seen: setPreferredSize() on a child without revalidate(), and changes
+ * to the layout manager's own settings, e.g. setHgap() or GridLayout.setColumns(), which layout managers don't report.
+ * Call {@link MemoizingPanel#clear()} and revalidate() after those.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class MemoizingPanel extends JPanel {
+    private Dimension preferredSize;
+    private Dimension minimumSize;
+    private Dimension maximumSize;
+    private Insets sizeInsets;
+    private Component[] children;
+    private boolean[] visible;
+    private Rectangle[] bounds;
+    private Dimension laidOutSize;
+    private Insets laidOutInsets;
+    /**
+     * true if the children were remembered since this panel was last invalidated, so they're already up to date
+     */
+    private boolean rememberedWhileInvalid;
+    private int computeCount;
+
+    public MemoizingPanel() {}
+
+    public MemoizingPanel(final LayoutManager layout) {
+        super(layout);
+    }
+
+    public MemoizingPanel(final boolean isDoubleBuffered) {
+        super(isDoubleBuffered);
+    }
+
+    public MemoizingPanel(final LayoutManager layout, final boolean isDoubleBuffered) {
+        super(layout, isDoubleBuffered);
+    }
+
+    /**
+     * @return number of times the preferred size was computed by the layout manager instead of reused
+     */
+    public int getComputeCount() {
+        return computeCount;
+    }
+
+    /**
+     * Forgets the remembered sizes and bounds. Must be called on the EDT.
+     */
+    public void clear() {
+        preferredSize = null;
+        minimumSize = null;
+        maximumSize = null;
+        children = null;
+        laidOutSize = null;
+    }
+
+    @Override
+    public void setLayout(final LayoutManager layout) {
+        clear();
+        super.setLayout(layout);
+    }
+
+    @Override
+    public void invalidate() {
+        // Container.invalidate() also clears the layout manager's own caches, which is harmless since it isn't asked
+        // for sizes again unless these are cleared too. When it's invalidated again, e.g. by being resized during the
+        // layout of its parent, the results remembered since the first invalidation already include the changes.
+        if (isValid() || !rememberedWhileInvalid) {
+            if (childrenChanged()) {
+                clear();
+            }
+            rememberedWhileInvalid = false;
+        }
+        super.invalidate();
+    }
+
+    /**
+     * Clears the remembered results if a child changed while this panel was already invalid. Swing only invalidates
+     * containers that are valid, so e.g. when this panel was resized and a child's text was set in the same event, this
+     * panel's invalidate() ran before the child was invalid and isn't run again for the child.
+     */
+    private void clearIfChildrenChanged() {
+        if (!isValid() && !rememberedWhileInvalid && childrenChanged()) {
+            clear();
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet() || getLayout() == null) {
+            return super.getPreferredSize();
+        }
+        clearIfChildrenChanged();
+        if (preferredSize == null) {
+            computeCount++;
+            preferredSize = new Dimension(super.getPreferredSize());
+            rememberChildren();
+        }
+        return new Dimension(preferredSize);
+    }
+
+    @Override
+    public Dimension getMinimumSize() {
+        if (isMinimumSizeSet() || getLayout() == null) {
+            return super.getMinimumSize();
+        }
+        clearIfChildrenChanged();
+        if (minimumSize == null) {
+            minimumSize = new Dimension(super.getMinimumSize());
+            rememberChildren();
+        }
+        return new Dimension(minimumSize);
+    }
+
+    @Override
+    public Dimension getMaximumSize() {
+        if (isMaximumSizeSet() || getLayout() == null) {
+            return super.getMaximumSize();
+        }
+        clearIfChildrenChanged();
+        if (maximumSize == null) {
+            maximumSize = new Dimension(super.getMaximumSize());
+            rememberChildren();
+        }
+        return new Dimension(maximumSize);
+    }
+
+    @Override
+    public void doLayout() {
+        clearIfChildrenChanged();
+        final Component[] current = getComponents();
+        if (laidOutSize != null && laidOutSize.equals(getSize()) && laidOutInsets.equals(getInsets()) &&
+                bounds.length == current.length) {
+            for (int i = 0; i < current.length; i++) {
+                current[i].setBounds(bounds[i]);
+            }
+            return;
+        }
+        super.doLayout();
+        bounds = new Rectangle[current.length];
+        for (int i = 0; i < current.length; i++) {
+            bounds[i] = current[i].getBounds();
+        }
+        laidOutSize = getSize();
+        laidOutInsets = getInsets();
+        rememberChildren();
+    }
+
+    private void rememberChildren() {
+        if (children != null) {
+            return;
+        }
+        children = getComponents();
+        visible = new boolean[children.length];
+        for (int i = 0; i < children.length; i++) {
+            visible[i] = children[i].isVisible();
+        }
+        sizeInsets = getInsets();
+        rememberedWhileInvalid = !isValid();
+    }
+
+    /**
+     * @return true if a child was revalidated, added, removed, shown, or hidden, or the insets changed, since the sizes
+     * were remembered
+     */
+    private boolean childrenChanged() {
+        if (children == null) {
+            return true;
+        }
+        if (getComponentCount() != children.length || !getInsets().equals(sizeInsets)) {
+            return true;
+        }
+        for (int i = 0; i < children.length; i++) {
+            final Component child = getComponent(i);
+            if (child != children[i] || child.isVisible() != visible[i] || !child.isValid()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
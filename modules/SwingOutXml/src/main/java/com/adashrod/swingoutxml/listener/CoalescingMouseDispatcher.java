@@ -0,0 +1,190 @@
+package com.adashrod.swingoutxml.listener;
+
+import javax.swing.Timer;
+import java.awt.event.ActionEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.util.EventListener;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A mouse listener that sits between a component and a user-defined listener and limits how often the user-defined
+ * listener receives moved, dragged, and wheel events. All other mouse events are passed through immediately, after
+ * delivering any event that was being held back so that the order of events is preserved.
+ *
+ * In {@link Mode#THROTTLE} mode, an event that arrives at least one interval after the previous delivery is delivered
+ * immediately. Otherwise it is held back and delivered when the interval ends.
+ * In {@link Mode#COALESCE} mode, events are always held back until the end of the interval that started with the
+ * first held-back event.
+ * Held-back wheel events are merged by summing their rotations, unless latestOnly is set, in which case only the
+ * latest event is delivered. Moved and dragged events are never merged; the latest one replaces the others.
+ *
+ * This is only meant to be used on the EDT, which is where AWT delivers mouse events and where the {@link javax.swing.Timer}
+ * used for delayed delivery fires.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class CoalescingMouseDispatcher implements MouseListener, MouseMotionListener, MouseWheelListener {
+    public enum Mode { THROTTLE, COALESCE }
+
+    private final EventListener target;
+    private final Mode mode;
+    private final long intervalNanos;
+    private final boolean latestOnly;
+    private final Timer timer;
+    private MouseEvent pending;
+    private long lastDelivery;
+
+    /**
+     * @param target         the listener to deliver events to; it must implement at least one of the mouse listener
+     *                       interfaces. Events are only delivered through the interfaces it implements.
+     * @param mode           whether to throttle or coalesce
+     * @param intervalMillis throttle interval or coalescing window, in milliseconds
+     * @param latestOnly     true to deliver only the latest held-back wheel event instead of summing rotations
+     */
+    public CoalescingMouseDispatcher(final EventListener target, final Mode mode, final int intervalMillis, final boolean latestOnly) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException(String.format("interval must be positive: %d", intervalMillis));
+        }
+        this.target = target;
+        this.mode = mode;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.latestOnly = latestOnly;
+        timer = new Timer(intervalMillis, (final ActionEvent e) -> { flush(); });
+        timer.setRepeats(false);
+        lastDelivery = System.nanoTime() - intervalNanos;
+    }
+
+    /**
+     * @return the user-defined listener that events are delivered to
+     */
+    public EventListener getTarget() {
+        return target;
+    }
+
+    /**
+     * Immediately delivers the held-back event, if there is one
+     */
+    public void flush() {
+        timer.stop();
+        if (pending == null) {
+            return;
+        }
+        final MouseEvent event = pending;
+        pending = null;
+        lastDelivery = System.nanoTime();
+        deliver(event);
+    }
+
+    private void hold(final MouseEvent event) {
+        if (pending != null) {
+            if (pending.getID() != event.getID()) {
+                // e.g. moved -> dragged: deliver the old kind instead of dropping it
+                flush();
+            } else if (!latestOnly && event instanceof MouseWheelEvent) {
+                pending = merge((MouseWheelEvent) pending, (MouseWheelEvent) event);
+                return;
+            }
+        }
+        pending = event;
+        if (mode == Mode.THROTTLE) {
+            final long elapsed = System.nanoTime() - lastDelivery;
+            if (elapsed >= intervalNanos) {
+                flush();
+            } else if (!timer.isRunning()) {
+                timer.setInitialDelay((int) TimeUnit.NANOSECONDS.toMillis(intervalNanos - elapsed));
+                timer.restart();
+            }
+        } else if (!timer.isRunning()) {
+            timer.setInitialDelay((int) TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+            timer.restart();
+        }
+    }
+
+    private static MouseWheelEvent merge(final MouseWheelEvent older, final MouseWheelEvent newer) {
+        return new MouseWheelEvent(newer.getComponent(), newer.getID(), newer.getWhen(), newer.getModifiersEx(),
+            newer.getX(), newer.getY(), newer.getXOnScreen(), newer.getYOnScreen(), newer.getClickCount(),
+            newer.isPopupTrigger(), newer.getScrollType(), newer.getScrollAmount(),
+            older.getWheelRotation() + newer.getWheelRotation(),
+            older.getPreciseWheelRotation() + newer.getPreciseWheelRotation());
+    }
+
+    private void deliver(final MouseEvent event) {
+        switch (event.getID()) {
+            case MouseEvent.MOUSE_MOVED:
+                ((MouseMotionListener) target).mouseMoved(event);
+                break;
+            case MouseEvent.MOUSE_DRAGGED:
+                ((MouseMotionListener) target).mouseDragged(event);
+                break;
+            case MouseEvent.MOUSE_WHEEL:
+                ((MouseWheelListener) target).mouseWheelMoved((MouseWheelEvent) event);
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void mouseClicked(final MouseEvent e) {
+        flush();
+        if (target instanceof MouseListener) {
+            ((MouseListener) target).mouseClicked(e);
+        }
+    }
+
+    @Override
+    public void mousePressed(final MouseEvent e) {
+        flush();
+        if (target instanceof MouseListener) {
+            ((MouseListener) target).mousePressed(e);
+        }
+    }
+
+    @Override
+    public void mouseReleased(final MouseEvent e) {
+        flush();
+        if (target instanceof MouseListener) {
+            ((MouseListener) target).mouseReleased(e);
+        }
+    }
+
+    @Override
+    public void mouseEntered(final MouseEvent e) {
+        flush();
+        if (target instanceof MouseListener) {
+            ((MouseListener) target).mouseEntered(e);
+        }
+    }
+
+    @Override
+    public void mouseExited(final MouseEvent e) {
+        flush();
+        if (target instanceof MouseListener) {
+            ((MouseListener) target).mouseExited(e);
+        }
+    }
+
+    @Override
+    public void mouseDragged(final MouseEvent e) {
+        if (target instanceof MouseMotionListener) {
+            hold(e);
+        }
+    }
+
+    @Override
+    public void mouseMoved(final MouseEvent e) {
+        if (target instanceof MouseMotionListener) {
+            hold(e);
+        }
+    }
+
+    @Override
+    public void mouseWheelMoved(final MouseWheelEvent e) {
+        if (target instanceof MouseWheelListener) {
+            hold(e);
+        }
+    }
+}
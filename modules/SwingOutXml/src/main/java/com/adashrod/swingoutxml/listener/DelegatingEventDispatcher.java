@@ -0,0 +1,434 @@
+package com.adashrod.swingoutxml.listener;
+
+import javax.swing.SwingUtilities;
+import java.awt.AWTEvent;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Point;
+import java.awt.Toolkit;
+import java.awt.event.AWTEventListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelEvent;
+import java.awt.event.MouseWheelListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EventListener;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Delivers mouse and key events to listeners that are bound to components, without adding the listeners to the
+ * components. There is one dispatcher per top-level container; it receives all mouse and key events through a single
+ * {@link java.awt.event.AWTEventListener}, ignores the ones that aren't inside its top-level container, and looks up
+ * the listeners for the event's component in an identity map. Binding and unbinding are O(1) map operations, and
+ * components don't accumulate listener arrays, which matters when one listener is bound to hundreds of components.
+ *
+ * This is what SwingOutXml uses for fields with \@{@link com.adashrod.swingoutxml.annotation.Listener}(delegated = true).
+ *
+ * Events are routed the way AWT would route them if the listeners had been added to the components:
+ * - key events go to the component that has focus
+ * - mouse events go to the deepest bound component under the pointer, unless AWT sent the event to a component
+ *   between it and the bound component that has its own mouse listeners
+ * - dragged, released, and clicked events go to the component that the button was pressed on
+ * - entered and exited events are generated when the pointer moves between bound components
+ * Events are converted to the coordinate space of the component they're delivered to.
+ *
+ * An event that was consumed before it reached the dispatcher isn't delivered, and once a listener consumes an event,
+ * it isn't delivered to the remaining listeners. Consuming a converted mouse event consumes the original, so the
+ * component's own listeners and UI see that it was consumed.
+ *
+ * The dispatcher is kept in a HierarchyListener on the top-level container, rather than in a static map, so it's
+ * reachable exactly as long as the container is. It's only registered with the Toolkit while the container is
+ * displayable, e.g. while the window is open or the panel is in a displayed window; once the container stops being
+ * displayable, nothing outside of it references the dispatcher or the bound components, and the bindings are used again
+ * if it becomes displayable again. {@link DelegatingEventDispatcher#dispose()} removes all of the bindings for good.
+ *
+ * Listeners are called on the EDT, outside of the dispatcher's lock, so they can bind and unbind listeners, and other
+ * threads can bind and unbind while events are being delivered.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class DelegatingEventDispatcher implements AWTEventListener {
+    private static final long eventMask = AWTEvent.MOUSE_EVENT_MASK | AWTEvent.MOUSE_MOTION_EVENT_MASK |
+        AWTEvent.MOUSE_WHEEL_EVENT_MASK | AWTEvent.KEY_EVENT_MASK;
+    private static final Collection<Class<?>> supportedTypes = Arrays.asList(MouseListener.class,
+        MouseMotionListener.class, MouseWheelListener.class, KeyListener.class);
+
+    private final Container root;
+    private final Map<Component, Bindings> bindings = new IdentityHashMap<>();
+    private final RootListener rootListener = new RootListener(this);
+    private boolean installed;
+    /**
+     * the bound component that the pointer is over
+     */
+    private Component hovered;
+    /**
+     * the bound component that a mouse button was pressed on, while it's held down
+     */
+    private Component pressed;
+
+    private DelegatingEventDispatcher(final Container root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the dispatcher for a top-level container, creating it if necessary
+     * @param root the top-level container, e.g. the JFrame created by SwingOutXml
+     * @return the dispatcher
+     */
+    public static synchronized DelegatingEventDispatcher forRoot(final Container root) {
+        for (final HierarchyListener listener: root.getHierarchyListeners()) {
+            if (listener instanceof RootListener) {
+                return ((RootListener) listener).dispatcher;
+            }
+        }
+        final DelegatingEventDispatcher dispatcher = new DelegatingEventDispatcher(root);
+        root.addHierarchyListener(dispatcher.rootListener);
+        return dispatcher;
+    }
+
+    /**
+     * @param listenerType a listener interface
+     * @return true if events for listenerType can be delegated
+     */
+    public static boolean supports(final Class<?> listenerType) {
+        return supportedTypes.contains(listenerType);
+    }
+
+    /**
+     * Binds a listener to a component
+     * @param component    the component, which must be in the top-level container
+     * @param listenerType which of the listener's interfaces to deliver events through, e.g. MouseListener.class
+     * @param listener     the listener
+     * @throws IllegalArgumentException if listenerType isn't supported or listener doesn't implement it
+     */
+    public synchronized void bind(final Component component, final Class<?> listenerType, final EventListener listener) {
+        if (!supports(listenerType) || !listenerType.isInstance(listener)) {
+            throw new IllegalArgumentException(String.format("Can't delegate %s events to %s", listenerType.getSimpleName(), listener));
+        }
+        bindings.computeIfAbsent(component, (final Component c) -> { return new Bindings(); }).add(listenerType, listener);
+        if (root.isDisplayable()) {
+            install();
+        }
+    }
+
+    /**
+     * Unbinds a listener from a component
+     * @param component    the component
+     * @param listenerType the interface that the listener was bound with
+     * @param listener     the listener
+     */
+    public synchronized void unbind(final Component component, final Class<?> listenerType, final EventListener listener) {
+        final Bindings componentBindings = bindings.get(component);
+        if (componentBindings != null) {
+            componentBindings.remove(listenerType, listener);
+            if (componentBindings.isEmpty()) {
+                bindings.remove(component);
+            }
+        }
+    }
+
+    /**
+     * Stops dispatching events and removes all bindings. forRoot() creates a new dispatcher for the container afterwards.
+     */
+    public void dispose() {
+        synchronized (DelegatingEventDispatcher.class) {
+            root.removeHierarchyListener(rootListener);
+        }
+        synchronized (this) {
+            bindings.clear();
+            uninstall();
+        }
+    }
+
+    private void install() {
+        if (!installed && !bindings.isEmpty()) {
+            Toolkit.getDefaultToolkit().addAWTEventListener(this, eventMask);
+            installed = true;
+        }
+    }
+
+    private void uninstall() {
+        hovered = null;
+        pressed = null;
+        if (installed) {
+            Toolkit.getDefaultToolkit().removeAWTEventListener(this);
+            installed = false;
+        }
+    }
+
+    private synchronized void displayabilityChanged() {
+        if (root.isDisplayable()) {
+            install();
+        } else {
+            uninstall();
+        }
+    }
+
+    @Override
+    public void eventDispatched(final AWTEvent event) {
+        if (!(event instanceof InputEvent) || ((InputEvent) event).isConsumed() || !(event.getSource() instanceof Component)) {
+            return;
+        }
+        final List<Delivery> deliveries = new ArrayList<>(2);
+        synchronized (this) {
+            if (bindings.isEmpty()) {
+                return;
+            }
+            final Component source = (Component) event.getSource();
+            if (source != root && !root.isAncestorOf(source)) {
+                return;
+            }
+            if (event instanceof KeyEvent) {
+                route(deliveries, ((KeyEvent) event).getComponent(), (KeyEvent) event, null);
+            } else if (event instanceof MouseEvent) {
+                routeMouse(deliveries, (MouseEvent) event);
+            }
+        }
+        for (final Delivery delivery: deliveries) {
+            delivery.deliver();
+        }
+    }
+
+    private void routeMouse(final List<Delivery> deliveries, final MouseEvent event) {
+        final int id = event.getID();
+        if (id == MouseEvent.MOUSE_EXITED) {
+            final Point point = SwingUtilities.convertPoint(event.getComponent(), event.getPoint(), root);
+            if (!root.contains(point)) {
+                setHovered(deliveries, null, event);
+            }
+            return;
+        }
+        if (id == MouseEvent.MOUSE_ENTERED) {
+            setHovered(deliveries, findTarget(event), event);
+            return;
+        }
+        final Component target;
+        if (pressed != null && (id == MouseEvent.MOUSE_DRAGGED || id == MouseEvent.MOUSE_RELEASED || id == MouseEvent.MOUSE_CLICKED)) {
+            target = pressed;
+        } else {
+            target = findTarget(event);
+        }
+        if (id == MouseEvent.MOUSE_MOVED || id == MouseEvent.MOUSE_DRAGGED) {
+            setHovered(deliveries, findTarget(event), event);
+        }
+        if (id == MouseEvent.MOUSE_PRESSED) {
+            pressed = target;
+        } else if (id == MouseEvent.MOUSE_RELEASED) {
+            pressed = null;
+        }
+        if (target != null) {
+            route(deliveries, target, SwingUtilities.convertMouseEvent(event.getComponent(), event, target), event);
+        }
+    }
+
+    /**
+     * Finds the deepest bound component under the pointer that AWT would have delivered the event to
+     */
+    private Component findTarget(final MouseEvent event) {
+        final Component source = event.getComponent();
+        final Component deepest = SwingUtilities.getDeepestComponentAt(source, event.getX(), event.getY());
+        // the source is the deepest component that has its own mouse listeners, so the components below it don't
+        for (Component component = deepest != null ? deepest : source; component != null; component = component.getParent()) {
+            if (bindings.containsKey(component)) {
+                return component;
+            }
+            if (component == source) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private void setHovered(final List<Delivery> deliveries, final Component component, final MouseEvent cause) {
+        if (component == hovered) {
+            return;
+        }
+        if (hovered != null) {
+            route(deliveries, hovered, withId(cause, hovered, MouseEvent.MOUSE_EXITED), null);
+        }
+        hovered = component;
+        if (component != null) {
+            route(deliveries, component, withId(cause, component, MouseEvent.MOUSE_ENTERED), null);
+        }
+    }
+
+    private static MouseEvent withId(final MouseEvent event, final Component target, final int id) {
+        final Point point = SwingUtilities.convertPoint(event.getComponent(), event.getPoint(), target);
+        return new MouseEvent(target, id, event.getWhen(), event.getModifiersEx(), point.x, point.y,
+            event.getXOnScreen(), event.getYOnScreen(), 0, false, MouseEvent.NOBUTTON);
+    }
+
+    /**
+     * Queues event for the listeners bound to target, to be delivered after the lock is released
+     * @param original the event that event was converted from, which is consumed if event is, or null
+     */
+    private void route(final List<Delivery> deliveries, final Component target, final InputEvent event, final InputEvent original) {
+        final Bindings componentBindings = bindings.get(target);
+        if (componentBindings != null) {
+            deliveries.add(new Delivery(componentBindings, event, original));
+        }
+    }
+
+    /**
+     * An event and the listeners to deliver it to
+     */
+    private static class Delivery {
+        final Bindings bindings;
+        final InputEvent event;
+        final InputEvent original;
+
+        Delivery(final Bindings bindings, final InputEvent event, final InputEvent original) {
+            this.bindings = bindings;
+            this.event = event;
+            this.original = original;
+        }
+
+        void deliver() {
+            if (event instanceof KeyEvent) {
+                deliverKey((KeyEvent) event);
+            } else {
+                deliverMouse((MouseEvent) event);
+            }
+            if (original != null && event.isConsumed()) {
+                original.consume();
+            }
+        }
+
+        private void deliverKey(final KeyEvent keyEvent) {
+            for (final KeyListener listener: bindings.keyListeners) {
+                if (keyEvent.isConsumed()) {
+                    return;
+                }
+                switch (keyEvent.getID()) {
+                    case KeyEvent.KEY_PRESSED:
+                        listener.keyPressed(keyEvent);
+                        break;
+                    case KeyEvent.KEY_RELEASED:
+                        listener.keyReleased(keyEvent);
+                        break;
+                    case KeyEvent.KEY_TYPED:
+                        listener.keyTyped(keyEvent);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        private void deliverMouse(final MouseEvent mouseEvent) {
+            final int id = mouseEvent.getID();
+            if (id == MouseEvent.MOUSE_MOVED || id == MouseEvent.MOUSE_DRAGGED) {
+                for (final MouseMotionListener listener: bindings.motionListeners) {
+                    if (mouseEvent.isConsumed()) {
+                        return;
+                    }
+                    if (id == MouseEvent.MOUSE_MOVED) {
+                        listener.mouseMoved(mouseEvent);
+                    } else {
+                        listener.mouseDragged(mouseEvent);
+                    }
+                }
+            } else if (id == MouseEvent.MOUSE_WHEEL) {
+                for (final MouseWheelListener listener: bindings.wheelListeners) {
+                    if (mouseEvent.isConsumed()) {
+                        return;
+                    }
+                    listener.mouseWheelMoved((MouseWheelEvent) mouseEvent);
+                }
+            } else {
+                for (final MouseListener listener: bindings.mouseListeners) {
+                    if (mouseEvent.isConsumed()) {
+                        return;
+                    }
+                    switch (id) {
+                        case MouseEvent.MOUSE_PRESSED:
+                            listener.mousePressed(mouseEvent);
+                            break;
+                        case MouseEvent.MOUSE_RELEASED:
+                            listener.mouseReleased(mouseEvent);
+                            break;
+                        case MouseEvent.MOUSE_CLICKED:
+                            listener.mouseClicked(mouseEvent);
+                            break;
+                        case MouseEvent.MOUSE_ENTERED:
+                            listener.mouseEntered(mouseEvent);
+                            break;
+                        case MouseEvent.MOUSE_EXITED:
+                            listener.mouseExited(mouseEvent);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the dispatcher with the Toolkit while the top-level container is displayable. Being a listener of the
+     * container is also what keeps the dispatcher reachable.
+     */
+    private static class RootListener implements HierarchyListener {
+        final DelegatingEventDispatcher dispatcher;
+
+        RootListener(final DelegatingEventDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        @Override
+        public void hierarchyChanged(final HierarchyEvent e) {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0) {
+                dispatcher.displayabilityChanged();
+            }
+        }
+    }
+
+    /**
+     * The listeners bound to one component. The lists are copy-on-write so that listeners can be bound and unbound while
+     * events are being delivered.
+     */
+    private static class Bindings {
+        final List<MouseListener> mouseListeners = new CopyOnWriteArrayList<>();
+        final List<MouseMotionListener> motionListeners = new CopyOnWriteArrayList<>();
+        final List<MouseWheelListener> wheelListeners = new CopyOnWriteArrayList<>();
+        final List<KeyListener> keyListeners = new CopyOnWriteArrayList<>();
+
+        void add(final Class<?> listenerType, final EventListener listener) {
+            if (listenerType == MouseListener.class) {
+                mouseListeners.add((MouseListener) listener);
+            } else if (listenerType == MouseMotionListener.class) {
+                motionListeners.add((MouseMotionListener) listener);
+            } else if (listenerType == MouseWheelListener.class) {
+                wheelListeners.add((MouseWheelListener) listener);
+            } else if (listenerType == KeyListener.class) {
+                keyListeners.add((KeyListener) listener);
+            }
+        }
+
+        void remove(final Class<?> listenerType, final EventListener listener) {
+            if (listenerType == MouseListener.class) {
+                mouseListeners.remove(listener);
+            } else if (listenerType == MouseMotionListener.class) {
+                motionListeners.remove(listener);
+            } else if (listenerType == MouseWheelListener.class) {
+                wheelListeners.remove(listener);
+            } else if (listenerType == KeyListener.class) {
+                keyListeners.remove(listener);
+            }
+        }
+
+        boolean isEmpty() {
+            return mouseListeners.isEmpty() && motionListeners.isEmpty() && wheelListeners.isEmpty() && keyListeners.isEmpty();
+        }
+    }
+}
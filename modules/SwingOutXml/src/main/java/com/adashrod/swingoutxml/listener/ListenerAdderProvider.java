@@ -0,0 +1,24 @@
+package com.adashrod.swingoutxml.listener;
+
+/**
+ * Service provider interface for registering listener adders with {@link ListenerAdderRegistry}. Libraries that supply
+ * custom components with custom listener types can implement this and list the implementation in
+ * META-INF/services/com.adashrod.swingoutxml.listener.ListenerAdderProvider so that SwingOutXml knows how to add those
+ * listeners without an addFunction in every \@{@link com.adashrod.swingoutxml.annotation.Listener} or XML attribute.
+ *
+ * Example:
+ * public class FancyAdders implements ListenerAdderProvider {
+ *     \@Override
+ *     public void registerAdders() {
+ *         ListenerAdderRegistry.register(FancyPanel.class, CoolListener.class, "addListener");
+ *     }
+ * }
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public interface ListenerAdderProvider {
+    /**
+     * Called once, when {@link ListenerAdderRegistry} is initialized. Implementations should call
+     * {@link ListenerAdderRegistry#register(Class, Class, String)} for each adder they provide.
+     */
+    void registerAdders();
+}
@@ -0,0 +1,295 @@
+package com.adashrod.swingoutxml.listener;
+
+import javax.swing.AbstractButton;
+import javax.swing.JList;
+import javax.swing.JTree;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeWillExpandListener;
+import java.awt.Component;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseListener;
+import java.awt.event.MouseMotionListener;
+import java.awt.event.MouseWheelListener;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A registry of functions used to add listeners to components, e.g. {@link java.awt.Component#addMouseListener(java.awt.event.MouseListener)}
+ * for MouseListeners. Each registration maps a (component class, listener interface) pair to the function that adds
+ * that kind of listener to that kind of component. Functions are resolved once into {@link java.lang.invoke.MethodHandle}s
+ * and lookups are cached per (component class, listener class), so binding a listener to many components doesn't
+ * repeat any reflective searching.
+ *
+ * The standard AWT/Swing adders are registered by default. Others can be registered by calling
+ * {@link ListenerAdderRegistry#register(Class, Class, String)} directly or by providing a {@link ListenerAdderProvider}
+ * through {@link java.util.ServiceLoader}.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class ListenerAdderRegistry {
+    private static final MethodType erasedAdderType = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /**
+     * listener interface -> (component class -> add and remove functions), in registration order
+     */
+    private static final Map<Class<?>, Map<Class<?>, MethodHandle[]>> registrations = new LinkedHashMap<>();
+    private static final Map<AdderKey, List<Adder>> adderCache = new ConcurrentHashMap<>();
+    private static final Map<AdderKey, Adder> namedAdderCache = new ConcurrentHashMap<>();
+
+    static {
+        register(Component.class, MouseListener.class, "addMouseListener");
+        register(Component.class, MouseMotionListener.class, "addMouseMotionListener");
+        register(Component.class, MouseWheelListener.class, "addMouseWheelListener");
+        register(Component.class, KeyListener.class, "addKeyListener");
+        register(AbstractButton.class, ActionListener.class, "addActionListener");
+        register(JTree.class, TreeWillExpandListener.class, "addTreeWillExpandListener");
+        register(JTree.class, TreeExpansionListener.class, "addTreeExpansionListener");
+        register(JList.class, ListSelectionListener.class, "addListSelectionListener");
+
+        for (final ListenerAdderProvider provider: ServiceLoader.load(ListenerAdderProvider.class)) {
+            provider.registerAdders();
+        }
+    }
+
+    /**
+     * Registers the function named functionName on componentClass as the way to add listeners of type listenerType to
+     * instances of componentClass and its subclasses. A registration on a subclass takes precedence over one on a
+     * superclass, e.g. registering (FancyPanel, MouseListener, "addFancyMouseListener") will make FancyPanels use that
+     * instead of addMouseListener.
+     * @param componentClass class that declares or inherits the add function
+     * @param listenerType   the listener interface that the function adds
+     * @param functionName   name of a public function on componentClass that takes one listenerType argument
+     * @throws IllegalArgumentException if there is no such function
+     */
+    public static synchronized void register(final Class<?> componentClass, final Class<?> listenerType, final String functionName) {
+        final MethodHandle handle = findAdder(componentClass, listenerType, functionName);
+        final MethodHandle remover = findRemover(componentClass, listenerType, functionName);
+        registrations.computeIfAbsent(listenerType, (final Class<?> k) -> { return new LinkedHashMap<>(); })
+            .put(componentClass, new MethodHandle[]{handle, remover});
+        adderCache.clear();
+    }
+
+    /**
+     * Finds all of the registered adders that apply to a listener of class listenerClass, one per registered listener
+     * interface that listenerClass implements. If a listener interface is implemented, but not supported by
+     * componentClass, e.g. an ActionListener on a JLabel, the returned adder will not be {@link Adder#isSupported() supported}.
+     * @param componentClass class of the component that listeners are being added to
+     * @param listenerClass  concrete class of the listener
+     * @return the adders, empty if listenerClass doesn't implement any registered listener interface
+     */
+    public static List<Adder> getAdders(final Class<?> componentClass, final Class<?> listenerClass) {
+        final AdderKey key = new AdderKey(componentClass, listenerClass, null);
+        final List<Adder> cached = adderCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final List<Adder> resolved = resolveAdders(componentClass, listenerClass);
+        adderCache.put(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * Finds the function named functionName on componentClass that can be used to add a listener of class
+     * listenerClass. Inherited functions are included. If the function is overloaded, the overload with the most
+     * specific parameter type that accepts listenerClass is used.
+     * @param componentClass class of the component that the listener is being added to
+     * @param listenerClass  concrete class of the listener
+     * @param functionName   name of the add function, e.g. from \@{@link com.adashrod.swingoutxml.annotation.Listener#addFunction()}
+     * @return the adder
+     * @throws IllegalArgumentException if there is no such function or it's not public
+     */
+    public static Adder getAdder(final Class<?> componentClass, final Class<?> listenerClass, final String functionName) {
+        final AdderKey key = new AdderKey(componentClass, listenerClass, functionName);
+        final Adder cached = namedAdderCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        final Adder resolved = new Adder(listenerClass, findAdder(componentClass, listenerClass, functionName),
+            findRemover(componentClass, listenerClass, functionName));
+        namedAdderCache.put(key, resolved);
+        return resolved;
+    }
+
+    private static synchronized List<Adder> resolveAdders(final Class<?> componentClass, final Class<?> listenerClass) {
+        final List<Adder> result = new ArrayList<>();
+        for (final Map.Entry<Class<?>, Map<Class<?>, MethodHandle[]>> entry: registrations.entrySet()) {
+            final Class<?> listenerType = entry.getKey();
+            if (!listenerType.isAssignableFrom(listenerClass)) {
+                continue;
+            }
+            MethodHandle[] handles = null;
+            for (Class<?> step = componentClass; step != null && handles == null; step = step.getSuperclass()) {
+                handles = entry.getValue().get(step);
+            }
+            result.add(handles != null ? new Adder(listenerType, handles[0], handles[1]) : new Adder(listenerType, null, null));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static MethodHandle findAdder(final Class<?> componentClass, final Class<?> listenerClass, final String functionName) {
+        Method best = null;
+        for (final Method method: componentClass.getMethods()) {
+            if (!method.getName().equals(functionName) || method.getParameterCount() != 1) {
+                continue;
+            }
+            final Class<?> parameterType = method.getParameterTypes()[0];
+            if (parameterType.isAssignableFrom(listenerClass) &&
+                    (best == null || best.getParameterTypes()[0].isAssignableFrom(parameterType))) {
+                best = method;
+            }
+        }
+        if (best == null) {
+            for (Class<?> step = componentClass; step != null; step = step.getSuperclass()) {
+                for (final Method method: step.getDeclaredMethods()) {
+                    if (method.getName().equals(functionName)) {
+                        throw new IllegalArgumentException(String.format("addFunction for listener is not public or doesn't accept %s: %s",
+                            listenerClass.getName(), functionName));
+                    }
+                }
+            }
+            throw new IllegalArgumentException(String.format("No function %s in %s", functionName, componentClass));
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(best).asType(erasedAdderType);
+        } catch (final IllegalAccessException iae) {
+            // public function declared in a non-public class, e.g. an anonymous JComponent
+            try {
+                best.setAccessible(true);
+                return MethodHandles.lookup().unreflect(best).asType(erasedAdderType);
+            } catch (final IllegalAccessException | RuntimeException e) {
+                throw new IllegalArgumentException(String.format("addFunction for listener is not accessible: %s", functionName), e);
+            }
+        }
+    }
+
+    /**
+     * Finds the remove function that corresponds to an add function, e.g. removeMouseListener for addMouseListener
+     * @return the remove function, or null if there isn't one
+     */
+    private static MethodHandle findRemover(final Class<?> componentClass, final Class<?> listenerClass, final String functionName) {
+        if (!functionName.startsWith("add")) {
+            return null;
+        }
+        try {
+            return findAdder(componentClass, listenerClass, "remove" + functionName.substring(3));
+        } catch (final IllegalArgumentException iae) {
+            return null;
+        }
+    }
+
+    /**
+     * A resolved function for adding one type of listener to one class of component, and the corresponding function for
+     * removing it, if there is one
+     */
+    public static final class Adder {
+        private final Class<?> listenerType;
+        private final MethodHandle handle;
+        private final MethodHandle remover;
+
+        private Adder(final Class<?> listenerType, final MethodHandle handle, final MethodHandle remover) {
+            this.listenerType = listenerType;
+            this.handle = handle;
+            this.remover = remover;
+        }
+
+        /**
+         * @return the listener interface (or class, for named adders) that this adds
+         */
+        public Class<?> getListenerType() {
+            return listenerType;
+        }
+
+        /**
+         * @return false if the component class has no registered function for adding this type of listener
+         */
+        public boolean isSupported() {
+            return handle != null;
+        }
+
+        /**
+         * Adds the listener to the component
+         * @param component component to add to
+         * @param listener  listener to add
+         * @throws InvocationTargetException if the add function threw an exception
+         * @throws IllegalStateException if this adder isn't supported
+         */
+        public void add(final Object component, final Object listener) throws InvocationTargetException {
+            if (handle == null) {
+                throw new IllegalStateException(String.format("%s does not support adding %s", component, listenerType.getName()));
+            }
+            try {
+                handle.invokeExact(component, listener);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+
+        /**
+         * @return true if there is a remove function corresponding to the add function, e.g. removeMouseListener
+         */
+        public boolean isRemovable() {
+            return remover != null;
+        }
+
+        /**
+         * Removes the listener from the component with the remove function corresponding to the add function
+         * @param component component to remove from
+         * @param listener  listener to remove
+         * @throws InvocationTargetException if the remove function threw an exception
+         * @throws IllegalStateException if there is no remove function
+         */
+        public void remove(final Object component, final Object listener) throws InvocationTargetException {
+            if (remover == null) {
+                throw new IllegalStateException(String.format("%s does not support removing %s", component, listenerType.getName()));
+            }
+            try {
+                remover.invokeExact(component, listener);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable t) {
+                throw new InvocationTargetException(t);
+            }
+        }
+    }
+
+    private static final class AdderKey {
+        private final Class<?> componentClass;
+        private final Class<?> listenerClass;
+        private final String functionName;
+
+        private AdderKey(final Class<?> componentClass, final Class<?> listenerClass, final String functionName) {
+            this.componentClass = componentClass;
+            this.listenerClass = listenerClass;
+            this.functionName = functionName;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof AdderKey)) {
+                return false;
+            }
+            final AdderKey other = (AdderKey) o;
+            return componentClass == other.componentClass && listenerClass == other.listenerClass &&
+                Objects.equals(functionName, other.functionName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(componentClass, listenerClass, functionName);
+        }
+    }
+}
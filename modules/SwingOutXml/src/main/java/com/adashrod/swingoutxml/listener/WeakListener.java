@@ -0,0 +1,198 @@
+package com.adashrod.swingoutxml.listener;
+
+import javax.swing.SwingUtilities;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A proxy that forwards calls to a listener that is only weakly referenced, so registering the proxy on a component
+ * doesn't keep the listener, or anything it references, reachable. This is what SwingOutXml registers for fields with
+ * \@{@link com.adashrod.swingoutxml.annotation.Listener}(weak = true).
+ *
+ * The proxy implements every interface that the listener implements. Once the listener has been collected, the proxy
+ * runs the unregister actions that were added with {@link WeakListener#onCollected(Runnable)}, e.g. removing itself
+ * from the component. This happens the next time the proxy is called, or the next time any WeakListener is created,
+ * whichever comes first; the unregister actions are run on the EDT.
+ *
+ * The proxy doesn't keep itself registered: if the component is collected first, the proxy and its unregister actions
+ * are collected with it.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class WeakListener implements InvocationHandler {
+    private static final ReferenceQueue<Object> collectedListeners = new ReferenceQueue<>();
+
+    private final ListenerReference reference;
+    private final Object proxy;
+    private final List<Runnable> unregisterActions = new CopyOnWriteArrayList<>();
+    private boolean unregistered;
+
+    private WeakListener(final Object listener) {
+        reference = new ListenerReference(listener, this);
+        final Collection<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> step = listener.getClass(); step != null; step = step.getSuperclass()) {
+            addInterfaces(step, interfaces);
+        }
+        try {
+            proxy = Proxy.newProxyInstance(listener.getClass().getClassLoader(), interfaces.toArray(new Class<?>[0]), this);
+        } catch (final IllegalArgumentException iae) {
+            throw new IllegalArgumentException(String.format("Can't create a weak proxy for %s", listener), iae);
+        }
+    }
+
+    /**
+     * Creates a weak proxy for a listener
+     * @param listener the listener to forward calls to
+     * @return the WeakListener, whose {@link WeakListener#getProxy()} should be registered instead of the listener
+     */
+    public static WeakListener wrap(final Object listener) {
+        expungeCollected();
+        return new WeakListener(listener);
+    }
+
+    private static void addInterfaces(final Class<?> c, final Collection<Class<?>> interfaces) {
+        for (final Class<?> i: c.getInterfaces()) {
+            if (interfaces.add(i)) {
+                addInterfaces(i, interfaces);
+            }
+        }
+    }
+
+    /**
+     * Runs the unregister actions of all of the WeakListeners whose listeners have been collected
+     */
+    private static void expungeCollected() {
+        final List<WeakListener> collected = new ArrayList<>();
+        for (Reference<?> r = collectedListeners.poll(); r != null; r = collectedListeners.poll()) {
+            collected.add(((ListenerReference) r).weakListener);
+        }
+        if (!collected.isEmpty()) {
+            SwingUtilities.invokeLater(() -> {
+                RuntimeException failure = null;
+                for (final WeakListener weakListener: collected) {
+                    try {
+                        weakListener.unregister();
+                    } catch (final RuntimeException re) {
+                        failure = addFailure(failure, re);
+                    }
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the proxy to register in place of the listener; it implements all of the listener's interfaces
+     */
+    public Object getProxy() {
+        return proxy;
+    }
+
+    /**
+     * @return the listener, or null if it has been collected
+     */
+    public Object getListener() {
+        return reference.get();
+    }
+
+    /**
+     * Adds an action to run once the listener has been collected, e.g. one that removes the proxy from a component. The
+     * action is reachable from the proxy for as long as the proxy is registered, so it should only weakly reference
+     * objects that the registration shouldn't keep reachable. All of the actions are run even if one throws; the first
+     * exception is then rethrown on the EDT, with the others suppressed.
+     * @param action action to run on the EDT
+     */
+    public void onCollected(final Runnable action) {
+        unregisterActions.add(action);
+    }
+
+    private synchronized void unregister() {
+        if (unregistered) {
+            return;
+        }
+        unregistered = true;
+        RuntimeException failure = null;
+        for (final Runnable action: unregisterActions) {
+            try {
+                action.run();
+            } catch (final RuntimeException re) {
+                failure = addFailure(failure, re);
+            }
+        }
+        unregisterActions.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Keeps the first failure and attaches the later ones to it, so that one failing action doesn't stop the others
+     */
+    private static RuntimeException addFailure(final RuntimeException first, final RuntimeException next) {
+        if (first == null) {
+            return next;
+        }
+        first.addSuppressed(next);
+        return first;
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return String.format("WeakListener(%s)", reference.get());
+            }
+        }
+        final Object listener = reference.get();
+        if (listener == null) {
+            if (SwingUtilities.isEventDispatchThread()) {
+                unregister();
+            } else {
+                SwingUtilities.invokeLater(this::unregister);
+            }
+            return defaultValue(method.getReturnType());
+        }
+        try {
+            return method.invoke(listener, args);
+        } catch (final InvocationTargetException ite) {
+            throw ite.getCause();
+        }
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type.isPrimitive() && type != void.class) {
+            return type == float.class ? 0f : type == double.class ? 0d : type == long.class ? 0L : type == int.class ? 0 :
+                type == short.class ? (short) 0 : (byte) 0;
+        }
+        return null;
+    }
+
+    private static class ListenerReference extends WeakReference<Object> {
+        final WeakListener weakListener;
+
+        ListenerReference(final Object listener, final WeakListener weakListener) {
+            super(listener, collectedListeners);
+            this.weakListener = weakListener;
+        }
+    }
+}
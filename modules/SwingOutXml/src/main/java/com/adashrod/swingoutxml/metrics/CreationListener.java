@@ -0,0 +1,21 @@
+package com.adashrod.swingoutxml.metrics;
+
+/**
+ * Receives timings of the phases of window creation. Listeners are registered with
+ * {@link com.adashrod.swingoutxml.SwingOutXml#addCreationListener(CreationListener)} and are called synchronously on
+ * the thread doing the creation, so implementations should be quick, e.g. adding to a histogram.
+ *
+ * Element-level phases (INSTANTIATE, ATTRIBUTES, LAYOUT, BIND) are reported once or more per element; LAYOUT, for
+ * example, is reported for building an element's layout manager and again for adding the element to its parent.
+ * Elements whose class is itself a \@SwingOutContainer are created with a nested create(), whose phases are reported
+ * under that class's template; the nested time is also included in the INSTANTIATE time of the outer element.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+@FunctionalInterface
+public interface CreationListener {
+    /**
+     * Called after each phase completes
+     * @param timing what was timed and how long it took
+     */
+    void phaseTimed(CreationTiming timing);
+}
@@ -0,0 +1,49 @@
+package com.adashrod.swingoutxml.metrics;
+
+/**
+ * The phases of {@link com.adashrod.swingoutxml.SwingOutXml#create(Class, Object...)} and
+ * {@link com.adashrod.swingoutxml.SwingOutXml#render(Object, Object...)} that are reported to {@link CreationListener}s
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public enum CreationPhase {
+    /**
+     * locating the template file or resource
+     */
+    LOAD,
+    /**
+     * reading and parsing the template into a DOM
+     */
+    PARSE,
+    /**
+     * scanning the context class for \@UiComponent, \@Listener, \@ComponentAction and \@CellRenderer fields
+     */
+    SET_CONTEXT,
+    /**
+     * resolving the class of an element, parsing its constructor arguments, and constructing it
+     */
+    INSTANTIATE,
+    /**
+     * applying simple attributes to an element's component, e.g. title, text, preferred-size
+     */
+    ATTRIBUTES,
+    /**
+     * building an element's layout manager, or parsing its constraints and adding it to its parent
+     */
+    LAYOUT,
+    /**
+     * binding fields, listeners, actions, button groups, and cell renderers to an element's component
+     */
+    BIND,
+    /**
+     * packing the top-level window
+     */
+    PACK,
+    /**
+     * running {@link com.adashrod.swingoutxml.PostSetup#afterCreate()}
+     */
+    AFTER_CREATE,
+    /**
+     * the whole create() or render() call, including all of the other phases
+     */
+    TOTAL
+}
@@ -0,0 +1,57 @@
+package com.adashrod.swingoutxml.metrics;
+
+/**
+ * The duration of one phase of creating a window from a template, optionally for one element of the template
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class CreationTiming {
+    private final String template;
+    private final CreationPhase phase;
+    private final String tagName;
+    private final String elementId;
+    private final long durationNanos;
+
+    public CreationTiming(final String template, final CreationPhase phase, final String tagName, final String elementId,
+            final long durationNanos) {
+        this.template = template;
+        this.phase = phase;
+        this.tagName = tagName;
+        this.elementId = elementId;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return path of the template, as specified in \@SwingOutContainer
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    public CreationPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * @return tag name of the element, or null for phases that aren't specific to an element
+     */
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * @return value of the id attribute of the element, or null if the element has no ID or the phase isn't specific
+     * to an element
+     */
+    public String getElementId() {
+        return elementId;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s <%s id=\"%s\"> %dns", template, phase, tagName, elementId, durationNanos);
+    }
+}
@@ -0,0 +1,441 @@
+package com.adashrod.swingoutxml.model;
+
+import javax.swing.table.AbstractTableModel;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-mostly TableModel that stores each column in a primitive buffer instead of boxing every cell, for tables with
+ * millions of rows. Columns can be int (4 bytes per cell), long (8), double (8), or dictionary-encoded strings (4 per
+ * cell, plus one copy of each distinct string). The buffers are on the Java heap by default, or off-heap (direct) when
+ * the model is created with offHeap = true. Each column is one buffer, so a model holds at most
+ * {@link ColumnarTableModel#MAX_ROWS} (about 268 million) rows.
+ *
+ * {@link ColumnarTableModel#getValueAt(int, int)} boxes the one cell being rendered; code that reads many cells, such
+ * as custom renderers or aggregations, can use the primitive getters instead.
+ *
+ * The model is bound to a j-table like any other constructor argument:
+ * <j-table id="table" add="false" constructor-args="tableModel"/>
+ * <j-scroll-pane constructor-args="{id:table}"/>
+ * ...
+ * public class MyGui extends JFrame {
+ *     ColumnarTableModel tableModel = new ColumnarTableModel(1_000_000, false)
+ *         .addIntColumn("id").addStringColumn("name").addDoubleColumn("price");
+ *     ...
+ * Like other Swing models, it should only be modified on the EDT once it's in a table.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class ColumnarTableModel extends AbstractTableModel {
+    /**
+     * Maximum number of rows, so that a column of the largest cells (8 bytes) still fits in one buffer
+     */
+    public static final int MAX_ROWS = Integer.MAX_VALUE / Long.BYTES;
+
+    private final List<Column> columns = new ArrayList<>();
+    private final boolean offHeap;
+    private int capacity;
+    private int rowCount;
+
+    /**
+     * @param initialCapacity number of rows to allocate space for; the columns grow as needed, up to
+     *                        {@link ColumnarTableModel#MAX_ROWS}
+     * @param offHeap         true to store the columns in direct buffers outside of the Java heap
+     */
+    public ColumnarTableModel(final int initialCapacity, final boolean offHeap) {
+        if (initialCapacity < 0 || initialCapacity > MAX_ROWS) {
+            throw new IllegalArgumentException(String.format("initialCapacity must be between 0 and %d: %d", MAX_ROWS,
+                initialCapacity));
+        }
+        this.capacity = Math.max(initialCapacity, 16);
+        this.offHeap = offHeap;
+    }
+
+    public ColumnarTableModel addIntColumn(final String name) {
+        return addColumn(new IntColumn(name));
+    }
+
+    public ColumnarTableModel addLongColumn(final String name) {
+        return addColumn(new LongColumn(name));
+    }
+
+    public ColumnarTableModel addDoubleColumn(final String name) {
+        return addColumn(new DoubleColumn(name));
+    }
+
+    public ColumnarTableModel addStringColumn(final String name) {
+        return addColumn(new StringColumn(name));
+    }
+
+    private ColumnarTableModel addColumn(final Column column) {
+        column.allocate(capacity);
+        columns.add(column);
+        fireTableStructureChanged();
+        return this;
+    }
+
+    /**
+     * Appends rows whose cells are 0, or null for string columns. Call the setters to fill them in, then
+     * {@link ColumnarTableModel#fireTableRowsUpdated(int, int)} if they were set after the table was shown.
+     * @param count number of rows to add
+     * @return index of the first added row
+     * @throws IllegalArgumentException if the model would have more than {@link ColumnarTableModel#MAX_ROWS} rows
+     */
+    public int addRows(final int count) {
+        final int first = rowCount;
+        if (count <= 0) {
+            return first;
+        }
+        if (count > MAX_ROWS - rowCount) {
+            throw new IllegalArgumentException(String.format("Can't add %d rows to %d rows; the maximum is %d", count,
+                rowCount, MAX_ROWS));
+        }
+        if (rowCount + count > capacity) {
+            int newCapacity = capacity;
+            while (newCapacity < rowCount + count) {
+                newCapacity = newCapacity > MAX_ROWS / 2 ? MAX_ROWS : newCapacity * 2;
+            }
+            for (final Column column: columns) {
+                column.grow(newCapacity, rowCount);
+            }
+            capacity = newCapacity;
+        }
+        rowCount += count;
+        fireTableRowsInserted(first, rowCount - 1);
+        return first;
+    }
+
+    /**
+     * Removes all rows, keeping the allocated space and the string dictionaries
+     */
+    public void clear() {
+        final int oldRowCount = rowCount;
+        if (oldRowCount > 0) {
+            for (final Column column: columns) {
+                column.clear(oldRowCount);
+            }
+            rowCount = 0;
+            fireTableRowsDeleted(0, oldRowCount - 1);
+        }
+    }
+
+    public int getInt(final int row, final int column) {
+        checkRow(row);
+        return column(column, IntColumn.class).values.get(row);
+    }
+
+    public long getLong(final int row, final int column) {
+        checkRow(row);
+        return column(column, LongColumn.class).values.get(row);
+    }
+
+    public double getDouble(final int row, final int column) {
+        checkRow(row);
+        return column(column, DoubleColumn.class).values.get(row);
+    }
+
+    public String getString(final int row, final int column) {
+        checkRow(row);
+        return column(column, StringColumn.class).get(row);
+    }
+
+    public void setInt(final int row, final int column, final int value) {
+        checkRow(row);
+        column(column, IntColumn.class).values.put(row, value);
+    }
+
+    public void setLong(final int row, final int column, final long value) {
+        checkRow(row);
+        column(column, LongColumn.class).values.put(row, value);
+    }
+
+    public void setDouble(final int row, final int column, final double value) {
+        checkRow(row);
+        column(column, DoubleColumn.class).values.put(row, value);
+    }
+
+    public void setString(final int row, final int column, final String value) {
+        checkRow(row);
+        column(column, StringColumn.class).set(row, value);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(final int column) {
+        return columns.get(column).name;
+    }
+
+    @Override
+    public Class<?> getColumnClass(final int column) {
+        return columns.get(column).getType();
+    }
+
+    @Override
+    public Object getValueAt(final int row, final int column) {
+        checkRow(row);
+        return columns.get(column).get(row);
+    }
+
+    /**
+     * Sets a cell from a boxed value, e.g. from a cell editor. Numbers are converted to the column's type.
+     */
+    @Override
+    public void setValueAt(final Object value, final int row, final int column) {
+        checkRow(row);
+        columns.get(column).set(row, value);
+        fireTableCellUpdated(row, column);
+    }
+
+    private void checkRow(final int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException(String.format("row %d, rowCount %d", row, rowCount));
+        }
+    }
+
+    private <T extends Column> T column(final int column, final Class<T> type) {
+        final Column c = columns.get(column);
+        if (!type.isInstance(c)) {
+            throw new IllegalArgumentException(String.format("column %d (%s) is a %s column", column, c.name,
+                c.getType().getSimpleName()));
+        }
+        return type.cast(c);
+    }
+
+    private ByteBuffer allocate(final int capacity, final int cellBytes) {
+        final long bytes = (long) capacity * cellBytes;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("%d rows of %d bytes don't fit in a buffer", capacity, cellBytes));
+        }
+        return (offHeap ? ByteBuffer.allocateDirect((int) bytes) : ByteBuffer.allocate((int) bytes)).order(ByteOrder.nativeOrder());
+    }
+
+    private abstract static class Column {
+        final String name;
+
+        Column(final String name) {
+            this.name = name;
+        }
+
+        abstract Class<?> getType();
+
+        abstract void allocate(int capacity);
+
+        /**
+         * Reallocates with a larger capacity, copying the first rowCount values
+         */
+        abstract void grow(int capacity, int rowCount);
+
+        abstract void clear(int rowCount);
+
+        abstract Object get(int row);
+
+        abstract void set(int row, Object value);
+    }
+
+    private class IntColumn extends Column {
+        IntBuffer values;
+
+        IntColumn(final String name) {
+            super(name);
+        }
+
+        @Override
+        Class<?> getType() {
+            return Integer.class;
+        }
+
+        @Override
+        void allocate(final int capacity) {
+            values = ColumnarTableModel.this.allocate(capacity, Integer.BYTES).asIntBuffer();
+        }
+
+        @Override
+        void grow(final int capacity, final int rowCount) {
+            final IntBuffer old = values;
+            allocate(capacity);
+            old.position(0).limit(rowCount);
+            values.put(old).clear();
+        }
+
+        @Override
+        void clear(final int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                values.put(i, 0);
+            }
+        }
+
+        @Override
+        Object get(final int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values.put(row, value == null ? 0 : ((Number) value).intValue());
+        }
+    }
+
+    private class LongColumn extends Column {
+        LongBuffer values;
+
+        LongColumn(final String name) {
+            super(name);
+        }
+
+        @Override
+        Class<?> getType() {
+            return Long.class;
+        }
+
+        @Override
+        void allocate(final int capacity) {
+            values = ColumnarTableModel.this.allocate(capacity, Long.BYTES).asLongBuffer();
+        }
+
+        @Override
+        void grow(final int capacity, final int rowCount) {
+            final LongBuffer old = values;
+            allocate(capacity);
+            old.position(0).limit(rowCount);
+            values.put(old).clear();
+        }
+
+        @Override
+        void clear(final int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                values.put(i, 0);
+            }
+        }
+
+        @Override
+        Object get(final int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values.put(row, value == null ? 0 : ((Number) value).longValue());
+        }
+    }
+
+    private class DoubleColumn extends Column {
+        DoubleBuffer values;
+
+        DoubleColumn(final String name) {
+            super(name);
+        }
+
+        @Override
+        Class<?> getType() {
+            return Double.class;
+        }
+
+        @Override
+        void allocate(final int capacity) {
+            values = ColumnarTableModel.this.allocate(capacity, Double.BYTES).asDoubleBuffer();
+        }
+
+        @Override
+        void grow(final int capacity, final int rowCount) {
+            final DoubleBuffer old = values;
+            allocate(capacity);
+            old.position(0).limit(rowCount);
+            values.put(old).clear();
+        }
+
+        @Override
+        void clear(final int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                values.put(i, 0);
+            }
+        }
+
+        @Override
+        Object get(final int row) {
+            return values.get(row);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            values.put(row, value == null ? 0 : ((Number) value).doubleValue());
+        }
+    }
+
+    /**
+     * Stores an int code per cell that indexes into a dictionary of the distinct strings in the column; -1 is null
+     */
+    private class StringColumn extends Column {
+        IntBuffer codes;
+        final List<String> dictionary = new ArrayList<>();
+        final Map<String, Integer> codesByString = new HashMap<>();
+
+        StringColumn(final String name) {
+            super(name);
+        }
+
+        @Override
+        Class<?> getType() {
+            return String.class;
+        }
+
+        @Override
+        void allocate(final int capacity) {
+            codes = ColumnarTableModel.this.allocate(capacity, Integer.BYTES).asIntBuffer();
+            for (int i = 0; i < capacity; i++) {
+                codes.put(i, -1);
+            }
+        }
+
+        @Override
+        void grow(final int capacity, final int rowCount) {
+            final IntBuffer old = codes;
+            allocate(capacity);
+            old.position(0).limit(rowCount);
+            codes.put(old).clear();
+        }
+
+        @Override
+        void clear(final int rowCount) {
+            for (int i = 0; i < rowCount; i++) {
+                codes.put(i, -1);
+            }
+        }
+
+        @Override
+        String get(final int row) {
+            final int code = codes.get(row);
+            return code < 0 ? null : dictionary.get(code);
+        }
+
+        @Override
+        void set(final int row, final Object value) {
+            if (value == null) {
+                codes.put(row, -1);
+                return;
+            }
+            final String s = value.toString();
+            Integer code = codesByString.get(s);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(s);
+                codesByString.put(s, code);
+            }
+            codes.put(row, code);
+        }
+    }
+}
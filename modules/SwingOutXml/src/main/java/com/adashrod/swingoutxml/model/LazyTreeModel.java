@@ -0,0 +1,426 @@
+package com.adashrod.swingoutxml.model;
+
+import com.adashrod.swingoutxml.action.ActionExecutors;
+
+import javax.swing.SwingUtilities;
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeExpansionListener;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A TreeModel whose children are loaded on demand, off of the EDT. The children of a node are loaded the first time the
+ * tree asks for them, which is when the node is expanded, by calling the {@link Loader} on an executor. Until they
+ * arrive, the node has a single placeholder child. Loads that finish at about the same time are delivered together in
+ * one EDT task, with one treeNodesInserted event per node.
+ *
+ * To keep memory bounded for large hierarchies, the model keeps track of how many nodes are loaded, and when there
+ * are more than maxLoadedNodes, the children of the least recently collapsed nodes are unloaded; they're loaded again
+ * if the node is expanded again. The model learns about expansions and collapses as a TreeExpansionListener of the
+ * tree, so it should be bound as a listener as well as the model:
+ * <j-tree id="files" model="fileTree" listeners="fileTree"/>
+ * <j-scroll-pane constructor-args="{id:files}"/>
+ * ...
+ * public class FileBrowser extends JFrame {
+ *     LazyTreeModel<File> fileTree = new LazyTreeModel<>(new File("/"), (final File parent) -> {
+ *         final File[] files = parent.listFiles();
+ *         return files != null ? Arrays.asList(files) : Collections.emptyList();
+ *     });
+ *     ...
+ *
+ * The nodes of the model are {@link LazyTreeModel.Node}s, which wrap the user's values; their toString() is the
+ * value's toString(), so the default renderer shows the values. Apart from the loader, the model is only used on the EDT.
+ *
+ * Each load is tagged with the generation of its node, which changes whenever the node's children are unloaded, by
+ * {@link LazyTreeModel#reload(Node)} or eviction, so a load that was still running then is dropped when it finishes
+ * instead of overwriting the newer children. An exception thrown by the loader leaves the node with no children, and
+ * is rethrown on the EDT after the other finished loads have been delivered.
+ * @param <T> type of the values in the tree
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class LazyTreeModel<T> implements TreeModel, TreeExpansionListener {
+    /**
+     * Loads the children of a node. loadChildren() is called off of the EDT.
+     * @param <T> type of the values in the tree
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        List<? extends T> loadChildren(T parent) throws Exception;
+
+        /**
+         * Called on the EDT, whenever the tree paints or measures the node, so it must not do I/O, e.g. File.isDirectory();
+         * have loadChildren() work it out and keep it in the values instead.
+         * @return true if the value can't have children, so that it's shown without an expand handle and never loaded
+         */
+        default boolean isLeaf(final T value) {
+            return false;
+        }
+    }
+
+    private final Node<T> root;
+    private final Loader<T> loader;
+    private final Executor executor;
+    private final EventListenerList listenerList = new EventListenerList();
+    private final Queue<Runnable> finishedLoads = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+    /**
+     * loaded nodes that are collapsed, least recently collapsed first
+     */
+    private final LinkedHashSet<Node<T>> collapsed = new LinkedHashSet<>();
+    private Object placeholderValue = "Loading...";
+    private int maxLoadedNodes = Integer.MAX_VALUE;
+    private int loadedNodes;
+
+    /**
+     * Creates a model that loads children on the default executor of {@link ActionExecutors}
+     * @param rootValue value of the root node
+     * @param loader    loads the children of nodes
+     */
+    public LazyTreeModel(final T rootValue, final Loader<T> loader) {
+        this(rootValue, loader, ActionExecutors.get(""));
+    }
+
+    /**
+     * @param rootValue value of the root node
+     * @param loader    loads the children of nodes
+     * @param executor  executor to run the loader on
+     */
+    public LazyTreeModel(final T rootValue, final Loader<T> loader, final Executor executor) {
+        this.root = new Node<>(this, rootValue, null, false);
+        this.loader = loader;
+        this.executor = executor;
+    }
+
+    /**
+     * @param placeholderValue what to show as the child of a node whose children are loading
+     */
+    public void setPlaceholderValue(final Object placeholderValue) {
+        this.placeholderValue = placeholderValue;
+    }
+
+    /**
+     * @param maxLoadedNodes number of loaded nodes above which collapsed subtrees are unloaded
+     */
+    public void setMaxLoadedNodes(final int maxLoadedNodes) {
+        if (maxLoadedNodes < 0) {
+            throw new IllegalArgumentException(String.format("maxLoadedNodes must not be negative: %d", maxLoadedNodes));
+        }
+        this.maxLoadedNodes = maxLoadedNodes;
+        evict();
+    }
+
+    /**
+     * @return number of nodes whose values are currently loaded, not counting the root
+     */
+    public int getLoadedNodeCount() {
+        return loadedNodes;
+    }
+
+    /**
+     * Unloads the children of a node so that they're loaded again the next time they're needed. If they're being loaded,
+     * that load is dropped and they're loaded again.
+     * @param node a node of this model
+     */
+    public void reload(final Node<T> node) {
+        if (node.children != null || node.loading) {
+            unload(node);
+            fireTreeStructureChanged(node);
+        }
+    }
+
+    @Override
+    public Node<T> getRoot() {
+        return root;
+    }
+
+    @Override
+    public Object getChild(final Object parent, final int index) {
+        final Node<T> node = node(parent);
+        if (node.children == null) {
+            load(node);
+            return node.getPlaceholderChild();
+        }
+        return node.children.get(index);
+    }
+
+    @Override
+    public int getChildCount(final Object parent) {
+        final Node<T> node = node(parent);
+        if (node.isPlaceholder()) {
+            return 0;
+        }
+        if (node.children == null) {
+            load(node);
+            return 1;
+        }
+        return node.children.size();
+    }
+
+    @Override
+    public boolean isLeaf(final Object node) {
+        final Node<T> n = node(node);
+        return n.isPlaceholder() || (n.children == null ? loader.isLeaf(n.value) : n.children.isEmpty() && loader.isLeaf(n.value));
+    }
+
+    @Override
+    public int getIndexOfChild(final Object parent, final Object child) {
+        final Node<T> node = node(parent);
+        if (node.children == null) {
+            return child != null && child == node.placeholderChild ? 0 : -1;
+        }
+        for (int i = 0; i < node.children.size(); i++) {
+            if (node.children.get(i) == child) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void valueForPathChanged(final TreePath path, final Object newValue) {}
+
+    @Override
+    public void addTreeModelListener(final TreeModelListener l) {
+        listenerList.add(TreeModelListener.class, l);
+    }
+
+    @Override
+    public void removeTreeModelListener(final TreeModelListener l) {
+        listenerList.remove(TreeModelListener.class, l);
+    }
+
+    @Override
+    public void treeExpanded(final TreeExpansionEvent event) {
+        final Object last = event.getPath().getLastPathComponent();
+        if (last instanceof Node && ((Node<?>) last).model == this) {
+            collapsed.remove(last);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void treeCollapsed(final TreeExpansionEvent event) {
+        final Object last = event.getPath().getLastPathComponent();
+        if (last instanceof Node && ((Node<?>) last).model == this && ((Node<T>) last).children != null) {
+            collapsed.add((Node<T>) last);
+            evict();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<T> node(final Object node) {
+        return (Node<T>) node;
+    }
+
+    private void load(final Node<T> node) {
+        if (node.loading) {
+            return;
+        }
+        node.loading = true;
+        node.getPlaceholderChild();
+        final int generation = node.generation;
+        executor.execute(() -> {
+            List<? extends T> values;
+            Exception error = null;
+            try {
+                values = loader.loadChildren(node.value);
+            } catch (final Exception e) {
+                values = null;
+                error = e;
+            }
+            final List<? extends T> loaded = values;
+            final Exception failure = error;
+            finishedLoads.add(() -> { deliver(node, generation, loaded, failure); });
+            if (deliveryScheduled.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(this::deliverFinishedLoads);
+            }
+        });
+    }
+
+    /**
+     * Delivers all of the loads that have finished since the last delivery, on the EDT
+     */
+    private void deliverFinishedLoads() {
+        deliveryScheduled.set(false);
+        RuntimeException failure = null;
+        Runnable delivery;
+        while ((delivery = finishedLoads.poll()) != null) {
+            try {
+                delivery.run();
+            } catch (final RuntimeException re) {
+                if (failure == null) {
+                    failure = re;
+                } else {
+                    failure.addSuppressed(re);
+                }
+            }
+        }
+        evict();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void deliver(final Node<T> node, final int generation, final List<? extends T> values, final Exception error) {
+        if (!node.loading || node.detached || generation != node.generation) {
+            // unloaded while loading, and maybe loading again
+            return;
+        }
+        node.loading = false;
+        if (node.placeholderChild != null) {
+            fireTreeNodesRemoved(node, new int[]{0}, new Object[]{node.placeholderChild});
+            node.placeholderChild = null;
+        }
+        if (error != null) {
+            // shown with no children; reload() retries
+            node.children = Collections.emptyList();
+            throw new IllegalStateException(String.format("Couldn't load the children of %s", node.value), error);
+        }
+        final List<Node<T>> children = new ArrayList<>(values.size());
+        for (final T value: values) {
+            children.add(new Node<>(this, value, node, false));
+        }
+        node.children = children;
+        loadedNodes += children.size();
+        if (!children.isEmpty()) {
+            final int[] indices = new int[children.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = i;
+            }
+            fireTreeNodesInserted(node, indices, children.toArray());
+        }
+    }
+
+    /**
+     * Unloads the children of the least recently collapsed nodes until no more than maxLoadedNodes are loaded
+     */
+    private void evict() {
+        while (loadedNodes > maxLoadedNodes && !collapsed.isEmpty()) {
+            // unloading removes descendants from collapsed, so don't hold an iterator
+            final Node<T> node = collapsed.iterator().next();
+            collapsed.remove(node);
+            if (!node.detached && node.children != null) {
+                unload(node);
+                fireTreeStructureChanged(node);
+            }
+        }
+    }
+
+    private void unload(final Node<T> node) {
+        final List<Node<T>> children = node.children;
+        node.children = null;
+        node.placeholderChild = null;
+        node.loading = false;
+        node.generation++;
+        if (children != null) {
+            for (final Node<T> child: children) {
+                detach(child);
+            }
+        }
+    }
+
+    private void detach(final Node<T> node) {
+        loadedNodes--;
+        node.detached = true;
+        node.loading = false;
+        collapsed.remove(node);
+        if (node.children != null) {
+            unload(node);
+        }
+    }
+
+    private TreePath pathTo(final Node<T> node) {
+        return node.parent == null ? new TreePath(node) : pathTo(node.parent).pathByAddingChild(node);
+    }
+
+    private void fireTreeNodesInserted(final Node<T> parent, final int[] indices, final Object[] children) {
+        final TreeModelEvent event = new TreeModelEvent(this, pathTo(parent), indices, children);
+        for (final TreeModelListener l: listenerList.getListeners(TreeModelListener.class)) {
+            l.treeNodesInserted(event);
+        }
+    }
+
+    private void fireTreeNodesRemoved(final Node<T> parent, final int[] indices, final Object[] children) {
+        final TreeModelEvent event = new TreeModelEvent(this, pathTo(parent), indices, children);
+        for (final TreeModelListener l: listenerList.getListeners(TreeModelListener.class)) {
+            l.treeNodesRemoved(event);
+        }
+    }
+
+    private void fireTreeStructureChanged(final Node<T> node) {
+        final TreeModelEvent event = new TreeModelEvent(this, pathTo(node));
+        for (final TreeModelListener l: listenerList.getListeners(TreeModelListener.class)) {
+            l.treeStructureChanged(event);
+        }
+    }
+
+    /**
+     * A node of a LazyTreeModel, wrapping a value
+     * @param <T> type of the value
+     */
+    public static final class Node<T> {
+        private final LazyTreeModel<T> model;
+        private final T value;
+        private final Node<T> parent;
+        private final boolean placeholder;
+        private Node<T> placeholderChild;
+        private List<Node<T>> children;
+        private boolean loading;
+        private boolean detached;
+        /**
+         * incremented when the children are unloaded, so that loads started before then can be told apart
+         */
+        private int generation;
+
+        private Node(final LazyTreeModel<T> model, final T value, final Node<T> parent, final boolean placeholder) {
+            this.model = model;
+            this.value = value;
+            this.parent = parent;
+            this.placeholder = placeholder;
+            if (placeholder) {
+                children = Collections.emptyList();
+            }
+        }
+
+        /**
+         * @return the value, or null for a placeholder
+         */
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return the parent node, or null for the root
+         */
+        public Node<T> getParent() {
+            return parent;
+        }
+
+        public boolean isPlaceholder() {
+            return placeholder;
+        }
+
+        private Node<T> getPlaceholderChild() {
+            if (placeholderChild == null) {
+                placeholderChild = new Node<>(model, null, this, true);
+            }
+            return placeholderChild;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(placeholder ? model.placeholderValue : value);
+        }
+    }
+}
@@ -0,0 +1,801 @@
+package com.adashrod.swingoutxml.model;
+
+import javax.swing.JComponent;
+import javax.swing.JEditorPane;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.EventListenerList;
+import javax.swing.event.UndoableEditListener;
+import javax.swing.plaf.basic.BasicTextAreaUI;
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.AttributeSet;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultEditorKit;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.JTextComponent;
+import javax.swing.text.PlainView;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.text.SimpleAttributeSet;
+import javax.swing.text.View;
+import javax.swing.text.ViewFactory;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Shape;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only Document of the text of a file, for viewing files that are too large to read into a JTextArea, which
+ * would copy the whole file into a char[]. The file is memory-mapped and decoded as UTF-8, and a background thread
+ * scans it once to build a sparse index: for every block of about {@link MappedDocument#BLOCK_SIZE} bytes it keeps
+ * where the block starts in the file and how many chars and lines come before it. Blocks are only decoded when the
+ * text in them is asked for, normally by painting the visible lines, and a small number of decoded blocks is cached.
+ *
+ * The text is added to the document, with insertUpdate events on the EDT, in batches while the file is being indexed,
+ * so the first lines can be shown right away. Lines end with \n; a \r is shown as a space. Malformed UTF-8 is shown as
+ * U+FFFD. A Document can't hold more than Integer.MAX_VALUE chars, so anything past that is left out.
+ *
+ * The standard text views measure every line to find the longest one, which for this document would decode the whole
+ * file, so {@link MappedDocument#install(JTextComponent)} also gives JTextAreas and JEditorPanes a view that estimates
+ * the width of the longest line from its length. Lines aren't wrapped. The model attribute calls install():
+ * <j-text-area id="log" model="logDocument"/>
+ * <j-scroll-pane constructor-args="{id:log}"/>
+ * ...
+ * public class LogViewer extends JFrame {
+ *     MappedDocument logDocument = new MappedDocument(Paths.get("/var/log/app.log"));
+ *     ...
+ *
+ * The file must not be truncated while it's mapped. Text appended after the document was created isn't seen.
+ * {@link MappedDocument#close()} stops indexing and closes the file.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class MappedDocument implements Document, Closeable {
+    /**
+     * approximate number of bytes in each indexed block
+     */
+    public static final int BLOCK_SIZE = 1 << 14;
+    /**
+     * files are mapped in segments of this size since a single mapping is limited to 2GB
+     */
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int CACHED_BLOCKS = 64;
+    private static final long PUBLISH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final Thread indexer;
+    private final EventListenerList listenerList = new EventListenerList();
+    private final Dictionary<Object, Object> properties = new Hashtable<>();
+    private final RootElement root = new RootElement();
+    private final Map<Integer, Block> blockCache = new LinkedHashMap<Integer, Block>(CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Integer, Block> eldest) {
+            return size() > CACHED_BLOCKS;
+        }
+    };
+    private volatile boolean closed;
+    // replaced by each batch from the indexer; only replaced on the EDT
+    private volatile Index index = new Index(new long[1], new int[1], new int[1], 0, 0, false);
+
+    /**
+     * Maps the file and starts indexing it. The first block is indexed before returning, so that a view of the document
+     * doesn't start out empty.
+     * @param file file to read
+     * @throws IOException error opening or mapping the file
+     */
+    public MappedDocument(final Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            fileSize = channel.size();
+            segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                final long position = (long) i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, fileSize - position));
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        properties.put(Document.StreamDescriptionProperty, file);
+        final Indexer work = new Indexer();
+        index = work.next(1);
+        indexer = new Thread(() -> { work.run(); }, String.format("MappedDocument indexer: %s", file.getFileName()));
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    /**
+     * Makes a text component show this document, with a view that doesn't measure every line. For JTextAreas this
+     * replaces the UI, so it has to be called again after the look and feel changes. Must be called on the EDT.
+     * @param textComponent component to show the document in
+     */
+    public void install(final JTextComponent textComponent) {
+        if (textComponent instanceof JEditorPane) {
+            ((JEditorPane) textComponent).setEditorKit(new EditorKit());
+        } else if (textComponent instanceof JTextArea) {
+            textComponent.setUI(new TextAreaUI());
+        }
+        textComponent.setEditable(false);
+        textComponent.setDocument(this);
+    }
+
+    /**
+     * @return true once the whole file has been indexed and all of its text is in the document. Must be called on the EDT.
+     */
+    public boolean isIndexed() {
+        return index.done;
+    }
+
+    /**
+     * Stops indexing and closes the file. The mapped memory is released when the document is garbage-collected.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        indexer.interrupt();
+        channel.close();
+    }
+
+    @Override
+    public int getLength() {
+        return index.length();
+    }
+
+    @Override
+    public String getText(final int offset, final int length) throws BadLocationException {
+        final Segment segment = new Segment();
+        getText(offset, length, segment);
+        return segment.toString();
+    }
+
+    @Override
+    public void getText(final int offset, final int length, final Segment txt) throws BadLocationException {
+        final Index snapshot = index;
+        // like the other documents, there's an implied \n at the end
+        if (offset < 0 || length < 0 || offset + length > snapshot.length() + 1) {
+            throw new BadLocationException(String.format("offset %d, length %d, document length %d", offset, length,
+                snapshot.length()), offset);
+        }
+        if (length == 0) {
+            txt.array = new char[0];
+            txt.offset = 0;
+            txt.count = 0;
+            return;
+        }
+        int blockIndex = snapshot.blockAt(offset);
+        if (blockIndex < snapshot.count) {
+            final int start = snapshot.charStarts[blockIndex];
+            final Block block = block(snapshot, blockIndex);
+            if (offset + length <= start + block.chars.length) {
+                // the usual case for painting: the text is in one decoded block and doesn't need to be copied
+                txt.array = block.chars;
+                txt.offset = offset - start;
+                txt.count = length;
+                return;
+            }
+        }
+        final char[] chars = new char[length];
+        int copied = 0;
+        while (copied < length) {
+            final int position = offset + copied;
+            if (blockIndex >= snapshot.count) {
+                chars[copied++] = '\n';
+                continue;
+            }
+            final Block block = block(snapshot, blockIndex);
+            final int from = position - snapshot.charStarts[blockIndex];
+            final int count = Math.min(length - copied, block.chars.length - from);
+            System.arraycopy(block.chars, from, chars, copied, count);
+            copied += count;
+            blockIndex++;
+        }
+        txt.array = chars;
+        txt.offset = 0;
+        txt.count = length;
+    }
+
+    @Override
+    public void insertString(final int offset, final String str, final AttributeSet a) throws BadLocationException {
+        throw new BadLocationException("MappedDocument is read-only", offset);
+    }
+
+    @Override
+    public void remove(final int offs, final int len) throws BadLocationException {
+        throw new BadLocationException("MappedDocument is read-only", offs);
+    }
+
+    @Override
+    public Position createPosition(final int offs) throws BadLocationException {
+        if (offs < 0 || offs > getLength() + 1) {
+            throw new BadLocationException(String.format("offset %d, document length %d", offs, getLength()), offs);
+        }
+        // text is only ever added at the end, so positions never move
+        return () -> { return offs; };
+    }
+
+    @Override
+    public Position getStartPosition() {
+        return () -> { return 0; };
+    }
+
+    @Override
+    public Position getEndPosition() {
+        return () -> { return getLength() + 1; };
+    }
+
+    @Override
+    public Element[] getRootElements() {
+        return new Element[]{root};
+    }
+
+    @Override
+    public Element getDefaultRootElement() {
+        return root;
+    }
+
+    @Override
+    public void render(final Runnable r) {
+        r.run();
+    }
+
+    @Override
+    public Object getProperty(final Object key) {
+        return properties.get(key);
+    }
+
+    @Override
+    public void putProperty(final Object key, final Object value) {
+        if (value != null) {
+            properties.put(key, value);
+        } else {
+            properties.remove(key);
+        }
+    }
+
+    @Override
+    public void addDocumentListener(final DocumentListener listener) {
+        listenerList.add(DocumentListener.class, listener);
+    }
+
+    @Override
+    public void removeDocumentListener(final DocumentListener listener) {
+        listenerList.remove(DocumentListener.class, listener);
+    }
+
+    @Override
+    public void addUndoableEditListener(final UndoableEditListener listener) {
+        listenerList.add(UndoableEditListener.class, listener);
+    }
+
+    @Override
+    public void removeUndoableEditListener(final UndoableEditListener listener) {
+        listenerList.remove(UndoableEditListener.class, listener);
+    }
+
+    private Block block(final Index snapshot, final int blockIndex) {
+        synchronized (blockCache) {
+            final Block cached = blockCache.get(blockIndex);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final long byteStart = snapshot.byteStarts[blockIndex];
+        final byte[] bytes = new byte[(int) (snapshot.byteStarts[blockIndex + 1] - byteStart)];
+        read(byteStart, bytes, bytes.length);
+        final Block block = new Block(bytes, snapshot.charStarts[blockIndex + 1] - snapshot.charStarts[blockIndex],
+            snapshot.lineStarts[blockIndex + 1] - snapshot.lineStarts[blockIndex]);
+        synchronized (blockCache) {
+            blockCache.put(blockIndex, block);
+        }
+        return block;
+    }
+
+    private void read(final long position, final byte[] bytes, final int count) {
+        int copied = 0;
+        while (copied < count) {
+            final long p = position + copied;
+            final ByteBuffer segment = segments[(int) (p / SEGMENT_SIZE)].duplicate();
+            segment.position((int) (p % SEGMENT_SIZE));
+            final int length = Math.min(count - copied, segment.remaining());
+            segment.get(bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xc0) == 0x80;
+    }
+
+    /**
+     * @return number of chars that b adds when decoding; must agree with {@link Block#Block(byte[], int, int)}
+     */
+    private static int charCount(final byte b) {
+        if (isContinuation(b)) {
+            return 0;
+        }
+        // 4-byte sequences are decoded to surrogate pairs
+        return (b & 0xf8) == 0xf0 ? 2 : 1;
+    }
+
+    private void publish(final Index next) {
+        SwingUtilities.invokeLater(() -> {
+            if (closed) {
+                return;
+            }
+            final Index previous = index;
+            index = next;
+            if (next.length() > previous.length()) {
+                fireInsertUpdate(previous.length(), next.length() - previous.length());
+            }
+        });
+    }
+
+    private void fireInsertUpdate(final int offset, final int length) {
+        final DocumentEvent event = new DocumentEvent() {
+            @Override
+            public int getOffset() {
+                return offset;
+            }
+
+            @Override
+            public int getLength() {
+                return length;
+            }
+
+            @Override
+            public Document getDocument() {
+                return MappedDocument.this;
+            }
+
+            @Override
+            public EventType getType() {
+                return EventType.INSERT;
+            }
+
+            @Override
+            public ElementChange getChange(final Element elem) {
+                // line elements are computed from the index, so there's nothing to report
+                return null;
+            }
+        };
+        for (final DocumentListener listener: listenerList.getListeners(DocumentListener.class)) {
+            listener.insertUpdate(event);
+        }
+    }
+
+    /**
+     * Scans the file for chars and lines on the indexer thread, handing the index to the EDT in batches
+     */
+    private class Indexer {
+        private final byte[] buffer = new byte[BLOCK_SIZE];
+        private long[] byteStarts = new long[1024];
+        private int[] charStarts = new int[1024];
+        private int[] lineStarts = new int[1024];
+        private int count;
+        private int currentLine;
+        private int longestLine;
+        private boolean done;
+
+        /**
+         * Indexes up to blocks more blocks
+         * @return the index so far
+         */
+        Index next(final int blocks) {
+            for (int i = 0; i < blocks && !done; i++) {
+                final long start = byteStarts[count];
+                long end = Math.min(start + BLOCK_SIZE, fileSize);
+                // don't split a UTF-8 sequence between blocks
+                for (int back = 0; back < 3 && end < fileSize && end - 1 > start && isContinuation(get(end)); back++) {
+                    end--;
+                }
+                final int length = (int) (end - start);
+                long chars = charStarts[count];
+                int lines = lineStarts[count];
+                int line = currentLine;
+                read(start, buffer, length);
+                for (int b = 0; b < length; b++) {
+                    final byte next = buffer[b];
+                    final int n = charCount(next);
+                    chars += n;
+                    line += n;
+                    if (next == '\n') {
+                        lines++;
+                        longestLine = Math.max(longestLine, line - 1);
+                        line = 0;
+                    }
+                }
+                if (chars >= Integer.MAX_VALUE) {
+                    done = true;
+                    break;
+                }
+                if (count + 2 > byteStarts.length) {
+                    byteStarts = Arrays.copyOf(byteStarts, byteStarts.length * 2);
+                    charStarts = Arrays.copyOf(charStarts, charStarts.length * 2);
+                    lineStarts = Arrays.copyOf(lineStarts, lineStarts.length * 2);
+                }
+                count++;
+                byteStarts[count] = end;
+                charStarts[count] = (int) chars;
+                lineStarts[count] = lines;
+                currentLine = line;
+                done = end == fileSize;
+            }
+            return new Index(byteStarts, charStarts, lineStarts, count, Math.max(longestLine, currentLine), done);
+        }
+
+        private byte get(final long position) {
+            return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+        }
+
+        void run() {
+            try {
+                long lastPublish = System.nanoTime();
+                while (!done) {
+                    if (closed) {
+                        return;
+                    }
+                    final Index next = next(256);
+                    if (done || System.nanoTime() - lastPublish >= PUBLISH_NANOS) {
+                        publish(next);
+                        lastPublish = System.nanoTime();
+                    }
+                }
+            } catch (final RuntimeException e) {
+                // reading the mapping fails once the document is closed; anything else goes to the thread's uncaught
+                // exception handler
+                if (!closed) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * A snapshot of the index. Block i spans byteStarts[i] to byteStarts[i + 1] in the file, and charStarts[i] and
+     * lineStarts[i] are the numbers of chars and \ns before it. The arrays are shared between snapshots, but entries up
+     * to count are never changed once written.
+     */
+    private static class Index {
+        final long[] byteStarts;
+        final int[] charStarts;
+        final int[] lineStarts;
+        final int count;
+        final int longestLine;
+        final boolean done;
+
+        Index(final long[] byteStarts, final int[] charStarts, final int[] lineStarts, final int count,
+                final int longestLine, final boolean done) {
+            this.byteStarts = byteStarts;
+            this.charStarts = charStarts;
+            this.lineStarts = lineStarts;
+            this.count = count;
+            this.longestLine = longestLine;
+            this.done = done;
+        }
+
+        int length() {
+            return charStarts[count];
+        }
+
+        int lineCount() {
+            return lineStarts[count] + 1;
+        }
+
+        /**
+         * @return the block containing the char at offset, or count if it's past the end
+         */
+        int blockAt(final int offset) {
+            return upperBound(charStarts, offset);
+        }
+
+        /**
+         * @return the block containing the \n that ends line
+         */
+        int blockOfNewline(final int line) {
+            return upperBound(lineStarts, line);
+        }
+
+        /**
+         * @return the last i in [0, count] such that values[i] <= value, skipping over blocks that add nothing
+         */
+        private int upperBound(final int[] values, final int value) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (values[mid] <= value) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A decoded block: its chars and the positions of the \ns in them
+     */
+    private static class Block {
+        final char[] chars;
+        final int[] newlines;
+
+        Block(final byte[] bytes, final int charCount, final int newlineCount) {
+            chars = new char[charCount];
+            newlines = new int[newlineCount];
+            int c = 0;
+            int n = 0;
+            int b = 0;
+            while (b < bytes.length) {
+                final int lead = bytes[b++] & 0xff;
+                if (lead < 0x80) {
+                    if (lead == '\n') {
+                        newlines[n++] = c;
+                    }
+                    chars[c++] = lead == '\r' ? ' ' : (char) lead;
+                    continue;
+                }
+                if (isContinuation((byte) lead)) {
+                    continue;
+                }
+                final int expected = lead >= 0xf8 ? -1 : lead >= 0xf0 ? 3 : lead >= 0xe0 ? 2 : 1;
+                if (expected < 0) {
+                    chars[c++] = '\ufffd';
+                    continue;
+                }
+                int codePoint = lead & (0x3f >> expected);
+                int found = 0;
+                while (found < expected && b < bytes.length && isContinuation(bytes[b])) {
+                    codePoint = codePoint << 6 | bytes[b++] & 0x3f;
+                    found++;
+                }
+                final int minimum = expected == 1 ? 0x80 : expected == 2 ? 0x800 : 0x10000;
+                final boolean valid = found == expected && codePoint >= minimum && codePoint <= Character.MAX_CODE_POINT &&
+                    (codePoint < Character.MIN_SURROGATE || codePoint > Character.MAX_SURROGATE);
+                if (expected == 3) {
+                    chars[c++] = valid ? Character.highSurrogate(codePoint) : '\ufffd';
+                    chars[c++] = valid ? Character.lowSurrogate(codePoint) : '\ufffd';
+                } else {
+                    chars[c++] = valid ? (char) codePoint : '\ufffd';
+                }
+            }
+        }
+    }
+
+    private class RootElement implements Element {
+        @Override
+        public Document getDocument() {
+            return MappedDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return AbstractDocument.SectionElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return 0;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return getLength() + 1;
+        }
+
+        @Override
+        public int getElementIndex(final int offset) {
+            final Index snapshot = index;
+            if (offset >= snapshot.length()) {
+                return snapshot.lineCount() - 1;
+            }
+            if (offset <= 0) {
+                return 0;
+            }
+            final int blockIndex = snapshot.blockAt(offset);
+            final int[] newlines = block(snapshot, blockIndex).newlines;
+            int before = Arrays.binarySearch(newlines, offset - snapshot.charStarts[blockIndex]);
+            // a \n belongs to the line that it ends
+            before = before >= 0 ? before : -before - 1;
+            return snapshot.lineStarts[blockIndex] + before;
+        }
+
+        @Override
+        public int getElementCount() {
+            return index.lineCount();
+        }
+
+        @Override
+        public Element getElement(final int line) {
+            final Index snapshot = index;
+            if (line < 0 || line >= snapshot.lineCount()) {
+                return null;
+            }
+            final int start = line == 0 ? 0 : newlineOffset(snapshot, line - 1) + 1;
+            final int end = line == snapshot.lineCount() - 1 ? snapshot.length() + 1 : newlineOffset(snapshot, line) + 1;
+            return new LineElement(start, end);
+        }
+
+        /**
+         * @return offset of the \n that ends line
+         */
+        private int newlineOffset(final Index snapshot, final int line) {
+            final int blockIndex = snapshot.blockOfNewline(line);
+            return snapshot.charStarts[blockIndex] + block(snapshot, blockIndex).newlines[line - snapshot.lineStarts[blockIndex]];
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+    }
+
+    private class LineElement implements Element {
+        private final int start;
+        private final int end;
+
+        LineElement(final int start, final int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public Document getDocument() {
+            return MappedDocument.this;
+        }
+
+        @Override
+        public Element getParentElement() {
+            return root;
+        }
+
+        @Override
+        public String getName() {
+            return AbstractDocument.ParagraphElementName;
+        }
+
+        @Override
+        public AttributeSet getAttributes() {
+            return SimpleAttributeSet.EMPTY;
+        }
+
+        @Override
+        public int getStartOffset() {
+            return start;
+        }
+
+        @Override
+        public int getEndOffset() {
+            return end;
+        }
+
+        @Override
+        public int getElementIndex(final int offset) {
+            return -1;
+        }
+
+        @Override
+        public int getElementCount() {
+            return 0;
+        }
+
+        @Override
+        public Element getElement(final int index) {
+            return null;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return true;
+        }
+    }
+
+    /**
+     * A PlainView that takes the width of the document from the length of the longest line, in chars, instead of
+     * measuring every line
+     */
+    public static class LineView extends PlainView {
+        private float tabWidth;
+
+        public LineView(final Element root) {
+            super(root);
+        }
+
+        @Override
+        protected void updateMetrics() {
+            final Component host = getContainer();
+            if (metrics == null || metrics.getFont() != host.getFont()) {
+                metrics = host.getFontMetrics(host.getFont());
+                tabWidth = getTabSize() * metrics.charWidth('m');
+            }
+        }
+
+        @Override
+        public float nextTabStop(final float x, final int tabOffset) {
+            if (tabWidth == 0) {
+                return x;
+            }
+            final Container host = getContainer();
+            final int tabBase = host instanceof JComponent ? ((JComponent) host).getInsets().left : 0;
+            return tabBase + ((int) ((x - tabBase) / tabWidth) + 1) * tabWidth;
+        }
+
+        @Override
+        public float getPreferredSpan(final int axis) {
+            if (axis != View.X_AXIS || !(getDocument() instanceof MappedDocument)) {
+                return super.getPreferredSpan(axis);
+            }
+            updateMetrics();
+            return ((MappedDocument) getDocument()).index.longestLine * metrics.charWidth('m');
+        }
+
+        @Override
+        public void insertUpdate(final DocumentEvent changes, final Shape a, final ViewFactory f) {
+            textAdded();
+        }
+
+        @Override
+        public void removeUpdate(final DocumentEvent changes, final Shape a, final ViewFactory f) {
+            textAdded();
+        }
+
+        @Override
+        public void changedUpdate(final DocumentEvent changes, final Shape a, final ViewFactory f) {
+            textAdded();
+        }
+
+        private void textAdded() {
+            preferenceChanged(null, true, true);
+            final Container host = getContainer();
+            if (host != null) {
+                host.repaint();
+            }
+        }
+    }
+
+    /**
+     * A text area UI that uses {@link LineView} for MappedDocuments
+     */
+    public static class TextAreaUI extends BasicTextAreaUI {
+        @Override
+        public View create(final Element elem) {
+            return elem.getDocument() instanceof MappedDocument ? new LineView(elem) : super.create(elem);
+        }
+    }
+
+    /**
+     * A plain text editor kit that uses {@link LineView}, for JEditorPanes
+     */
+    public static class EditorKit extends DefaultEditorKit {
+        @Override
+        public ViewFactory getViewFactory() {
+            return LineView::new;
+        }
+    }
+}
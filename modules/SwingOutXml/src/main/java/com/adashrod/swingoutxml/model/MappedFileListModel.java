@@ -0,0 +1,261 @@
+package com.adashrod.swingoutxml.model;
+
+import javax.swing.AbstractListModel;
+import javax.swing.SwingUtilities;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A read-only ListModel of the lines of a file, for viewing files that are too large to read into memory, e.g. multi-GB
+ * logs. The file is memory-mapped, and a background thread scans it once to build an index of where each line starts.
+ * Nothing else is kept in memory: a line is only decoded when the JList asks for it, which is normally only for the
+ * visible cells.
+ *
+ * The index is an int per line for files under 2GB and a long per line for larger files. Lines are added to the model,
+ * with intervalAdded events on the EDT, in batches while the file is being indexed, so the list can be scrolled before
+ * indexing finishes. Lines end with \n or \r\n. Lines longer than {@link MappedFileListModel#MAX_DECODED_BYTES} are
+ * truncated.
+ *
+ * JList measures every cell to compute its preferred size unless it has a fixed cell size, which for this model would
+ * decode the whole file, so a list using it should set prototype-cell-value (or fixed cell sizes):
+ * <j-list id="log" constructor-args="logModel" prototype-cell-value="0000-00-00 00:00:00 INFO  ........................"/>
+ * <j-scroll-pane constructor-args="{id:log}"/>
+ * ...
+ * public class LogViewer extends JFrame {
+ *     MappedFileListModel logModel = new MappedFileListModel(Paths.get("/var/log/app.log"));
+ *     ...
+ * or it can be set with the model attribute:
+ * <j-list id="log" model="logModel" prototype-cell-value="..."/>
+ *
+ * The file must not be truncated while it's mapped. Lines appended after the model was created aren't seen.
+ * {@link MappedFileListModel#close()} stops indexing and closes the file.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class MappedFileListModel extends AbstractListModel<String> implements Closeable {
+    /**
+     * maximum number of bytes of a line that are decoded
+     */
+    public static final int MAX_DECODED_BYTES = 1 << 16;
+    /**
+     * files are mapped in segments of this size since a single mapping is limited to 2GB
+     */
+    private static final int SEGMENT_SIZE = 1 << 30;
+    private static final int PUBLISH_LINES = 1 << 16;
+    private static final long PUBLISH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final Thread indexer;
+    private volatile boolean closed;
+
+    // only accessed on the EDT. The indexer hands over its live arrays with each batch, not copies; that's safe because
+    // it only appends, so the entries below the count it publishes are never written again, and the EDT never reads
+    // past size. When it grows an array, it appends to the copy and hands that over with the next batch.
+    private int[] intOffsets;
+    private long[] longOffsets;
+    private int size;
+    private boolean indexed;
+
+    /**
+     * Maps the file as UTF-8 and starts indexing it
+     * @param file file to read
+     * @throws IOException error opening or mapping the file
+     */
+    public MappedFileListModel(final Path file) throws IOException {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps the file and starts indexing it
+     * @param file    file to read
+     * @param charset charset of the file; it must encode \n as the single byte 0x0a, like UTF-8 and ISO-8859-1 do
+     * @throws IOException error opening or mapping the file
+     */
+    public MappedFileListModel(final Path file, final Charset charset) throws IOException {
+        final ByteBuffer newline = charset.newEncoder().encode(CharBuffer.wrap("\n"));
+        if (newline.remaining() != 1 || newline.get(0) != '\n') {
+            throw new IllegalArgumentException(String.format("Unsupported charset for MappedFileListModel: %s", charset));
+        }
+        this.charset = charset;
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            fileSize = channel.size();
+            segments = new MappedByteBuffer[(int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+            for (int i = 0; i < segments.length; i++) {
+                final long position = (long) i * SEGMENT_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, fileSize - position));
+            }
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (fileSize <= Integer.MAX_VALUE) {
+            intOffsets = new int[0];
+        } else {
+            longOffsets = new long[0];
+        }
+        indexer = new Thread(this::index, String.format("MappedFileListModel indexer: %s", file.getFileName()));
+        indexer.setDaemon(true);
+        indexer.start();
+    }
+
+    /**
+     * @return true once the whole file has been indexed and all of its lines are in the model. Must be called on the EDT.
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Stops indexing and closes the file. The mapped memory is released when the model is garbage-collected.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        indexer.interrupt();
+        channel.close();
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("index %d, size %d", index, size));
+        }
+        final long start = offset(index);
+        long end = index + 1 < size ? offset(index + 1) - 1 : lineEnd(start);
+        if (end > start && get(end - 1) == '\r' && (end == fileSize || get(end) == '\n')) {
+            end--;
+        }
+        final byte[] bytes = new byte[(int) Math.min(end - start, MAX_DECODED_BYTES)];
+        read(start, bytes);
+        return new String(bytes, charset);
+    }
+
+    private long offset(final int index) {
+        return intOffsets != null ? intOffsets[index] : longOffsets[index];
+    }
+
+    /**
+     * Scans for the end of the last line in the model, which the index doesn't have yet. The scan stops after
+     * MAX_DECODED_BYTES, since no more than that is decoded, so a huge final line doesn't stall the EDT.
+     * @return position of the \n that ends the line starting at start, the end of the file, or start + MAX_DECODED_BYTES
+     */
+    private long lineEnd(final long start) {
+        final long limit = Math.min(fileSize, start + MAX_DECODED_BYTES);
+        for (long position = start; position < limit; position++) {
+            if (get(position) == '\n') {
+                return position;
+            }
+        }
+        return limit;
+    }
+
+    private byte get(final long position) {
+        return segments[(int) (position / SEGMENT_SIZE)].get((int) (position % SEGMENT_SIZE));
+    }
+
+    private void read(final long position, final byte[] bytes) {
+        int copied = 0;
+        while (copied < bytes.length) {
+            final long p = position + copied;
+            final ByteBuffer segment = segments[(int) (p / SEGMENT_SIZE)].duplicate();
+            segment.position((int) (p % SEGMENT_SIZE));
+            final int length = Math.min(bytes.length - copied, segment.remaining());
+            segment.get(bytes, copied, length);
+            copied += length;
+        }
+    }
+
+    /**
+     * Scans the file for line starts on the indexer thread, handing them to the EDT in batches. An exception is
+     * rethrown to the indexer thread's uncaught exception handler unless the model was closed, which makes reading the
+     * mapping fail.
+     */
+    private void index() {
+        final boolean useInts = intOffsets != null;
+        int[] ints = useInts ? new int[1024] : null;
+        long[] longs = useInts ? null : new long[1024];
+        int count = 0;
+        int published = 0;
+        long lastPublish = System.nanoTime();
+        boolean lineStart = fileSize > 0;
+        try {
+            long position = 0;
+            for (final MappedByteBuffer mapped: segments) {
+                final ByteBuffer segment = mapped.duplicate();
+                final int limit = segment.limit();
+                for (int i = 0; i < limit; i++, position++) {
+                    if (lineStart) {
+                        if (count == (useInts ? ints.length : longs.length)) {
+                            if (useInts) {
+                                ints = Arrays.copyOf(ints, ints.length * 2);
+                            } else {
+                                longs = Arrays.copyOf(longs, longs.length * 2);
+                            }
+                        }
+                        if (useInts) {
+                            ints[count++] = (int) position;
+                        } else {
+                            longs[count++] = position;
+                        }
+                        lineStart = false;
+                        if ((count & 0xfff) == 0) {
+                            if (closed) {
+                                return;
+                            }
+                            if (count - published >= PUBLISH_LINES || System.nanoTime() - lastPublish >= PUBLISH_NANOS) {
+                                publish(ints, longs, count, false);
+                                published = count;
+                                lastPublish = System.nanoTime();
+                            }
+                        }
+                    }
+                    if (segment.get(i) == '\n') {
+                        lineStart = position + 1 < fileSize;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+            }
+            publish(ints, longs, count, true);
+        } catch (final RuntimeException e) {
+            if (!closed) {
+                throw e;
+            }
+        }
+    }
+
+    private void publish(final int[] ints, final long[] longs, final int count, final boolean done) {
+        SwingUtilities.invokeLater(() -> {
+            if (closed) {
+                return;
+            }
+            final int oldSize = size;
+            intOffsets = ints;
+            longOffsets = longs;
+            size = count;
+            indexed = done;
+            if (count > oldSize) {
+                fireIntervalAdded(this, oldSize, count - 1);
+            }
+        });
+    }
+}
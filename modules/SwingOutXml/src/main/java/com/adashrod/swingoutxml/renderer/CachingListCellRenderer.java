@@ -0,0 +1,330 @@
+package com.adashrod.swingoutxml.renderer;
+
+import javax.swing.CellRendererPane;
+import javax.swing.JComponent;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.event.MouseEvent;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A ListCellRenderer that wraps an expensive renderer and keeps images of the cells it rendered, so that repainting a
+ * cell draws an image instead of configuring and painting the wrapped renderer's component again. This is what
+ * SwingOutXml sets on a j-list when its renderer has \@{@link com.adashrod.swingoutxml.annotation.CellRenderer}(cached = true).
+ *
+ * Images are keyed by (value, selected, focused, width) and kept in an LRU cache of maxEntries images. The index of a
+ * cell isn't part of the key, so this should only be used with renderers whose output depends on the value and not on
+ * the index, and with values that implement equals() and hashCode(). The images of values in changed intervals of the
+ * list's model are invalidated automatically when the list is installed with
+ * {@link CachingListCellRenderer#install(JList, ListCellRenderer, int)}; anything else that changes how a value is
+ * rendered should call {@link CachingListCellRenderer#invalidate()} or {@link CachingListCellRenderer#invalidate(Object)}.
+ *
+ * The hit rate can be checked with {@link CachingListCellRenderer#getHits()} and {@link CachingListCellRenderer#getMisses()}
+ * to see whether caching is worth it for a list. Like other renderers, this is only used on the EDT.
+ * @param <E> type of the list's values
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class CachingListCellRenderer<E> implements ListCellRenderer<E> {
+    /**
+     * changed intervals longer than this clear the whole cache instead of looking up each value
+     */
+    private static final int MAX_INVALIDATED_INTERVAL = 1024;
+
+    private final ListCellRenderer<? super E> renderer;
+    private final int maxEntries;
+    private final Map<Key, Entry> cache;
+    private final CellRendererPane rendererPane = new CellRendererPane();
+    private final ImageCell cell = new ImageCell();
+    private final ListDataListener modelListener = new ListDataListener() {
+        @Override
+        public void intervalAdded(final ListDataEvent e) {}
+
+        @Override
+        public void intervalRemoved(final ListDataEvent e) {}
+
+        @Override
+        public void contentsChanged(final ListDataEvent e) {
+            invalidate((ListModel<?>) e.getSource(), e.getIndex0(), e.getIndex1());
+        }
+    };
+    private final PropertyChangeListener listListener = (final PropertyChangeEvent e) -> {
+        if ("model".equals(e.getPropertyName())) {
+            if (e.getOldValue() != null) {
+                ((ListModel<?>) e.getOldValue()).removeListDataListener(modelListener);
+            }
+            if (e.getNewValue() != null) {
+                ((ListModel<?>) e.getNewValue()).addListDataListener(modelListener);
+            }
+            invalidate();
+        } else if ("font".equals(e.getPropertyName()) || "cellRenderer".equals(e.getPropertyName())) {
+            invalidate();
+        }
+    };
+    private long hits;
+    private long misses;
+
+    /**
+     * @param renderer   the renderer to cache images of
+     * @param maxEntries maximum number of cell images to keep
+     */
+    public CachingListCellRenderer(final ListCellRenderer<? super E> renderer, final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException(String.format("maxEntries must be positive: %d", maxEntries));
+        }
+        this.renderer = renderer;
+        this.maxEntries = maxEntries;
+        cache = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+                return size() > CachingListCellRenderer.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Sets a caching renderer on the list that wraps renderer, and invalidates the cached images when the list's model
+     * reports changes
+     * @param list       list to set the renderer on
+     * @param renderer   the renderer to cache images of
+     * @param maxEntries maximum number of cell images to keep
+     * @param <E>        type of the list's values
+     * @return the caching renderer
+     */
+    public static <E> CachingListCellRenderer<E> install(final JList<E> list, final ListCellRenderer<? super E> renderer,
+            final int maxEntries) {
+        final CachingListCellRenderer<E> caching = new CachingListCellRenderer<>(renderer, maxEntries);
+        list.setCellRenderer(caching);
+        list.getModel().addListDataListener(caching.modelListener);
+        list.addPropertyChangeListener(caching.listListener);
+        return caching;
+    }
+
+    /**
+     * @return the wrapped renderer
+     */
+    public ListCellRenderer<? super E> getRenderer() {
+        return renderer;
+    }
+
+    /**
+     * Discards all cached images
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * Discards the cached images of a value
+     * @param value a value in the list
+     */
+    public void invalidate(final Object value) {
+        final Iterator<Key> iterator = cache.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (Objects.equals(iterator.next().value, value)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void invalidate(final ListModel<?> model, final int index0, final int index1) {
+        final int first = Math.max(Math.min(index0, index1), 0);
+        final int last = Math.min(Math.max(index0, index1), model.getSize() - 1);
+        if (index0 < 0 || last - first >= MAX_INVALIDATED_INTERVAL) {
+            invalidate();
+            return;
+        }
+        for (int i = first; i <= last; i++) {
+            invalidate(model.getElementAt(i));
+        }
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return fraction of cells that were painted from the cache, or 0 if none have been requested
+     */
+    public double getHitRate() {
+        final long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    @Override
+    public Component getListCellRendererComponent(final JList<? extends E> list, final E value, final int index,
+            final boolean isSelected, final boolean cellHasFocus) {
+        final Key key = new Key(value, isSelected, cellHasFocus, expectedWidth(list));
+        final Entry entry = cache.get(key);
+        if (entry != null && entry.image != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        cell.set(list, value, index, isSelected, cellHasFocus, key, entry);
+        return cell;
+    }
+
+    /**
+     * @return the width that cells in the list will be painted at, or -1 if it's their preferred width
+     */
+    private static int expectedWidth(final JList<?> list) {
+        if (list.getFixedCellWidth() > 0) {
+            return list.getFixedCellWidth();
+        }
+        return list.getLayoutOrientation() == JList.VERTICAL ? list.getWidth() : -1;
+    }
+
+    private Entry render(final JList<? extends E> list, final E value, final int index, final boolean isSelected,
+            final boolean cellHasFocus, final int width, final int height) {
+        final Component component = renderer.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+        final Dimension preferredSize = component.getPreferredSize();
+        final int w = width > 0 ? width : preferredSize.width;
+        final int h = height > 0 ? height : preferredSize.height;
+        if (w <= 0 || h <= 0) {
+            return new Entry(null, preferredSize);
+        }
+        final GraphicsConfiguration configuration = list.getGraphicsConfiguration();
+        final AffineTransform scale = configuration != null ? configuration.getDefaultTransform() : new AffineTransform();
+        final BufferedImage image = new BufferedImage((int) Math.ceil(w * scale.getScaleX()),
+            (int) Math.ceil(h * scale.getScaleY()), BufferedImage.TYPE_INT_ARGB);
+        final Graphics2D g = image.createGraphics();
+        try {
+            g.scale(scale.getScaleX(), scale.getScaleY());
+            SwingUtilities.paintComponent(g, component, rendererPane, 0, 0, w, h);
+        } finally {
+            g.dispose();
+        }
+        return new Entry(image, preferredSize, w, h);
+    }
+
+    /**
+     * The component returned to the list: it has the wrapped renderer's preferred size, and paints the cached image,
+     * rendering it first if it isn't cached at the size the cell is painted at
+     */
+    private class ImageCell extends JComponent {
+        private JList<? extends E> list;
+        private E value;
+        private int index;
+        private boolean isSelected;
+        private boolean cellHasFocus;
+        private Key key;
+        private Entry entry;
+
+        void set(final JList<? extends E> list, final E value, final int index, final boolean isSelected,
+                final boolean cellHasFocus, final Key key, final Entry entry) {
+            this.list = list;
+            this.value = value;
+            this.index = index;
+            this.isSelected = isSelected;
+            this.cellHasFocus = cellHasFocus;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            if (entry == null) {
+                // measuring doesn't need an image, but keep the size so that the cell isn't measured again
+                entry = new Entry(null, renderer.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus).getPreferredSize());
+                cache.put(key, entry);
+            }
+            return new Dimension(entry.preferredSize);
+        }
+
+        @Override
+        public String getToolTipText(final MouseEvent event) {
+            final Component component = renderer.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            if (component instanceof JComponent) {
+                component.setSize(getSize());
+                return ((JComponent) component).getToolTipText(event);
+            }
+            return null;
+        }
+
+        @Override
+        protected void paintComponent(final Graphics g) {
+            if (entry == null || entry.image == null || entry.width != getWidth() || entry.height != getHeight()) {
+                final Dimension preferredSize = entry != null ? entry.preferredSize : null;
+                entry = render(list, value, index, isSelected, cellHasFocus, getWidth(), getHeight());
+                if (preferredSize != null) {
+                    entry = new Entry(entry.image, preferredSize, entry.width, entry.height);
+                }
+                cache.put(key, entry);
+            }
+            if (entry.image != null) {
+                g.drawImage(entry.image, 0, 0, entry.width, entry.height, null);
+            }
+        }
+    }
+
+    private static class Key {
+        final Object value;
+        final boolean isSelected;
+        final boolean cellHasFocus;
+        final int width;
+
+        Key(final Object value, final boolean isSelected, final boolean cellHasFocus, final int width) {
+            this.value = value;
+            this.isSelected = isSelected;
+            this.cellHasFocus = cellHasFocus;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return isSelected == key.isSelected && cellHasFocus == key.cellHasFocus && width == key.width &&
+                Objects.equals(value, key.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value, isSelected, cellHasFocus, width);
+        }
+    }
+
+    private static class Entry {
+        final BufferedImage image;
+        final Dimension preferredSize;
+        final int width;
+        final int height;
+
+        Entry(final BufferedImage image, final Dimension preferredSize) {
+            this(image, preferredSize, 0, 0);
+        }
+
+        Entry(final BufferedImage image, final Dimension preferredSize, final int width, final int height) {
+            this.image = image;
+            this.preferredSize = preferredSize;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
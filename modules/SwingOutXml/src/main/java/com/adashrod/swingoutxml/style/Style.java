@@ -0,0 +1,116 @@
+package com.adashrod.swingoutxml.style;
+
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
+import javax.swing.JMenuBar;
+import javax.swing.JToolBar;
+import javax.swing.border.Border;
+import javax.swing.border.CompoundBorder;
+import javax.swing.text.JTextComponent;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.Insets;
+
+/**
+ * A named set of properties defined by a &lt;style&gt; element. Every property is optional; null properties aren't
+ * applied. The instances of Font, Color, Border, and Insets are interned by {@link StyleSheets}, so every style that
+ * has the same value for a property, in any style sheet, shares one instance. Styles are immutable, and the interned
+ * instances must not be modified either, e.g. Insets from getMargin().
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public final class Style {
+    private final String name;
+    private final Font font;
+    private final Color foreground;
+    private final Color background;
+    private final Border border;
+    private final Insets insets;
+    /**
+     * border to use when the insets aren't a margin: the border with an empty border of the insets inside of it
+     */
+    private final Border insetsBorder;
+
+    Style(final String name, final Font font, final Color foreground, final Color background, final Border border,
+            final Insets insets, final Border insetsBorder) {
+        this.name = name;
+        this.font = font;
+        this.foreground = foreground;
+        this.background = background;
+        this.border = border;
+        this.insets = insets;
+        this.insetsBorder = border != null && insetsBorder != null ? new CompoundBorder(border, insetsBorder) : insetsBorder;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    public Color getForeground() {
+        return foreground;
+    }
+
+    public Color getBackground() {
+        return background;
+    }
+
+    public Border getBorder() {
+        return border;
+    }
+
+    public Insets getInsets() {
+        return insets;
+    }
+
+    /**
+     * Sets this style's properties on a component. Insets are the margin of buttons, text components, menu bars, and
+     * tool bars; for other components, they're an empty border inside the style's border.
+     * @param component component to style
+     * @throws IllegalArgumentException if the style has a border or insets and the component isn't a JComponent
+     */
+    public void apply(final Component component) {
+        if (font != null) {
+            component.setFont(font);
+        }
+        if (foreground != null) {
+            component.setForeground(foreground);
+        }
+        if (background != null) {
+            component.setBackground(background);
+        }
+        if (border == null && insets == null) {
+            return;
+        }
+        if (!(component instanceof JComponent)) {
+            throw new IllegalArgumentException(String.format("Style %s has a border or insets, which can't be set on %s",
+                name, component.getClass().getName()));
+        }
+        final JComponent jComponent = (JComponent) component;
+        boolean insetsAreMargin = insets != null;
+        if (component instanceof AbstractButton) {
+            ((AbstractButton) component).setMargin(insets);
+        } else if (component instanceof JTextComponent) {
+            ((JTextComponent) component).setMargin(insets);
+        } else if (component instanceof JMenuBar) {
+            ((JMenuBar) component).setMargin(insets);
+        } else if (component instanceof JToolBar) {
+            ((JToolBar) component).setMargin(insets);
+        } else {
+            insetsAreMargin = false;
+        }
+        if (insets != null && !insetsAreMargin) {
+            jComponent.setBorder(insetsBorder);
+        } else if (border != null) {
+            jComponent.setBorder(border);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Style(%s)", name);
+    }
+}
@@ -0,0 +1,87 @@
+package com.adashrod.swingoutxml.style;
+
+import javax.swing.JComponent;
+import java.awt.Component;
+import java.awt.Container;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The styles defined by a style file or by the &lt;styles&gt; elements of a template, by name. Style sheets are
+ * immutable and are shared by every window created from the same template. Components that were styled from a style
+ * sheet remember the names of their styles, so a window can be restyled with another sheet that defines the same
+ * names, e.g. to switch themes:
+ *     StyleSheets.load("/styles/dark.xml").applyTo(frame);
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public final class StyleSheet {
+    /**
+     * client property that holds the style names of a component
+     */
+    public static final String STYLE_NAMES_PROPERTY = "swingoutxml.style";
+
+    private final Map<String, Style> styles;
+
+    StyleSheet(final Map<String, Style> styles) {
+        this.styles = Collections.unmodifiableMap(styles);
+    }
+
+    /**
+     * @return all of the styles in this sheet by name
+     */
+    public Map<String, Style> getStyles() {
+        return styles;
+    }
+
+    /**
+     * @param name name of a style
+     * @return the style, or null if this sheet doesn't define it
+     */
+    public Style get(final String name) {
+        return styles.get(name);
+    }
+
+    /**
+     * Applies the named styles to a component in order, so later styles override earlier ones
+     * @param names     style names
+     * @param component component to style
+     * @throws IllegalArgumentException if a style isn't defined
+     */
+    public void apply(final String[] names, final Component component) {
+        for (final String name: names) {
+            final Style style = styles.get(name);
+            if (style == null) {
+                throw new IllegalArgumentException(String.format("Undefined style: %s", name));
+            }
+            style.apply(component);
+        }
+        if (component instanceof JComponent) {
+            ((JComponent) component).putClientProperty(STYLE_NAMES_PROPERTY, names);
+        }
+    }
+
+    /**
+     * Re-applies styles from this sheet to every component under root that was styled with a style attribute. Styles
+     * that this sheet doesn't define are skipped.
+     * @param root a window or other container
+     */
+    public void applyTo(final Container root) {
+        if (root instanceof JComponent) {
+            final Object names = ((JComponent) root).getClientProperty(STYLE_NAMES_PROPERTY);
+            if (names instanceof String[]) {
+                for (final String name: (String[]) names) {
+                    final Style style = styles.get(name);
+                    if (style != null) {
+                        style.apply(root);
+                    }
+                }
+            }
+        }
+        for (final Component child: root.getComponents()) {
+            if (child instanceof Container) {
+                applyTo((Container) child);
+            }
+        }
+        root.repaint();
+    }
+}
@@ -0,0 +1,283 @@
+package com.adashrod.swingoutxml.style;
+
+import com.adashrod.swingoutxml.util.DomUtils;
+import com.adashrod.swingoutxml.xml.XmlLoader;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.swing.BorderFactory;
+import javax.swing.border.Border;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Insets;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Loads and caches {@link StyleSheet}s, and interns the Fonts, Colors, Borders, and Insets that they use.
+ *
+ * A template can define styles in &lt;styles&gt; elements that are direct children of its root element, and can
+ * import style files with &lt;styles src="path"/&gt;. A style file has a &lt;styles&gt; root element. Styles are
+ * applied to elements with the style attribute, which is a comma-separated list of style names; later styles override
+ * earlier ones:
+ * <j-frame ...>
+ *     <styles src="/styles/common.xml"/>
+ *     <styles>
+ *         <style name="heading" font="SansSerif-BOLD-18" foreground="#202020"/>
+ *         <style name="box" border="line #808080 1" insets="4, 4, 4, 4" background="white"/>
+ *         <style name="warning" extends="heading" foreground="red"/>
+ *     </styles>
+ *     <j-label style="heading">Title</j-label>
+ *     <j-panel style="box, warning">...</j-panel>
+ *     ...
+ * Style properties:
+ * font:       anything accepted by {@link Font#decode(String)}, e.g. "Serif-ITALIC-12"
+ * foreground, background: #rrggbb, #aarrggbb, or the name of a constant in {@link Color}, e.g. "darkGray"
+ * border:     "empty t l b r", "line color [thickness]", "matte t l b r color", "etched", "raised-bevel", "lowered-bevel"
+ * insets:     "t, l, b, r"
+ * extends:    name of a style defined earlier whose properties are inherited
+ *
+ * Each style file and each template's styles are resolved once, the first time they're used, and the same StyleSheet
+ * is used for every window after that. {@link StyleSheets#reload()} discards the cached sheets, e.g. after a style
+ * file was edited.
+ * @author Aaron Rodriguez (adashrod@gmail.com)
+ */
+public class StyleSheets {
+    public static final String E_STYLES = "styles";
+    public static final String E_STYLE = "style";
+    private static final StyleSheet emptySheet = new StyleSheet(new LinkedHashMap<>());
+
+    private static final Map<String, StyleSheet> files = new ConcurrentHashMap<>();
+    private static final Map<String, StyleSheet> templates = new ConcurrentHashMap<>();
+    private static final Map<String, Object> interned = new ConcurrentHashMap<>();
+
+    /**
+     * Loads a style file, or gets it from the cache if it was already loaded
+     * @param path classpath resource or file path of the style file
+     * @return the style sheet
+     * @throws IllegalArgumentException if the file can't be read or has an invalid style
+     */
+    public static StyleSheet load(final String path) {
+        return files.computeIfAbsent(path, (final String p) -> {
+            final Element root;
+            try {
+                root = new XmlLoader().load(p).getDocumentElement();
+            } catch (final IOException | SAXException e) {
+                throw new IllegalArgumentException(String.format("Unable to load style file %s", p), e);
+            }
+            if (!E_STYLES.equals(root.getTagName())) {
+                throw new IllegalArgumentException(String.format("The root element of style file %s must be <%s>", p, E_STYLES));
+            }
+            final Map<String, Style> styles = new LinkedHashMap<>();
+            addStyles(root, styles);
+            return new StyleSheet(styles);
+        });
+    }
+
+    /**
+     * Gets the style sheet for a template, resolving its &lt;styles&gt; elements the first time, and removes those
+     * elements from the document so that they aren't treated as components
+     * @param template     path of the template, used as the cache key
+     * @param rootElement  root element of the parsed template
+     * @return the style sheet, which is empty if the template has no styles
+     */
+    public static StyleSheet forTemplate(final String template, final Element rootElement) {
+        final List<Element> stylesElements = new ArrayList<>();
+        final NodeList children = rootElement.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            final Node child = children.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE && E_STYLES.equals(((Element) child).getTagName())) {
+                stylesElements.add((Element) child);
+            }
+        }
+        if (stylesElements.isEmpty()) {
+            return emptySheet;
+        }
+        StyleSheet sheet = templates.get(template);
+        if (sheet == null) {
+            final Map<String, Style> styles = new LinkedHashMap<>();
+            for (final Element stylesElement: stylesElements) {
+                final String src = DomUtils.getAttribute("src", stylesElement);
+                if (src != null) {
+                    styles.putAll(load(src).getStyles());
+                }
+                addStyles(stylesElement, styles);
+            }
+            sheet = new StyleSheet(styles);
+            templates.put(template, sheet);
+        }
+        for (final Element stylesElement: stylesElements) {
+            rootElement.removeChild(stylesElement);
+        }
+        return sheet;
+    }
+
+    /**
+     * Discards all cached style sheets so that they're loaded again the next time they're used. Interned values are
+     * kept, so reloaded sheets share instances with the old ones.
+     */
+    public static void reload() {
+        files.clear();
+        templates.clear();
+    }
+
+    private static void addStyles(final Element stylesElement, final Map<String, Style> styles) {
+        final NodeList children = stylesElement.getChildNodes();
+        for (int i = 0; i < children.getLength(); i++) {
+            final Node child = children.item(i);
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            final Element element = (Element) child;
+            if (!E_STYLE.equals(element.getTagName())) {
+                throw new IllegalArgumentException(String.format("Only <%s> elements are allowed in <%s>: %s", E_STYLE,
+                    E_STYLES, DomUtils.toString(element)));
+            }
+            final Style style = parseStyle(element, styles);
+            styles.put(style.getName(), style);
+        }
+    }
+
+    private static Style parseStyle(final Element element, final Map<String, Style> styles) {
+        final String name = DomUtils.getAttribute("name", element);
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException(String.format("<%s> requires a name: %s", E_STYLE, DomUtils.toString(element)));
+        }
+        Font font = null;
+        Color foreground = null, background = null;
+        Border border = null;
+        Insets insets = null;
+        final String parentName = DomUtils.getAttribute("extends", element);
+        if (parentName != null) {
+            final Style parent = styles.get(parentName.trim());
+            if (parent == null) {
+                throw new IllegalArgumentException(String.format("Style %s extends undefined style %s", name, parentName));
+            }
+            font = parent.getFont();
+            foreground = parent.getForeground();
+            background = parent.getBackground();
+            border = parent.getBorder();
+            insets = parent.getInsets();
+        }
+        final NamedNodeMap attributes = element.getAttributes();
+        for (int i = 0; i < attributes.getLength(); i++) {
+            final Node attribute = attributes.item(i);
+            final String value = attribute.getNodeValue().trim();
+            try {
+                switch (attribute.getNodeName()) {
+                    case "name":
+                    case "extends":
+                        break;
+                    case "font":
+                        font = intern("font:", value, () -> { return Font.decode(value); });
+                        break;
+                    case "foreground":
+                        foreground = parseColor(value);
+                        break;
+                    case "background":
+                        background = parseColor(value);
+                        break;
+                    case "border":
+                        border = intern("border:", value.replaceAll("\\s+", " "), () -> { return parseBorder(value); });
+                        break;
+                    case "insets":
+                        insets = intern("insets:", value.replaceAll("\\s+", ""), () -> {
+                            final int[] n = parseInts(value.split("\\s*,\\s*"), 0, 4);
+                            return new Insets(n[0], n[1], n[2], n[3]);
+                        });
+                        break;
+                    default:
+                        throw new IllegalArgumentException(String.format("Unknown style property %s", attribute.getNodeName()));
+                }
+            } catch (final RuntimeException e) {
+                throw new IllegalArgumentException(String.format("%s in %s", e.getMessage(), DomUtils.toString(element)), e);
+            }
+        }
+        final Insets finalInsets = insets;
+        final Border insetsBorder = insets == null ? null : intern("insets-border:", insets.toString(), () -> {
+            return BorderFactory.createEmptyBorder(finalInsets.top, finalInsets.left, finalInsets.bottom, finalInsets.right);
+        });
+        return new Style(name.trim(), font, foreground, background, border, insets, insetsBorder);
+    }
+
+    private static Color parseColor(final String value) {
+        return intern("color:", value, () -> {
+            if (value.startsWith("#")) {
+                final long argb = Long.parseLong(value.substring(1), 16);
+                return value.length() == 9 ? new Color((int) argb, true) : new Color((int) argb);
+            }
+            try {
+                final Field field = Color.class.getField(value);
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == Color.class) {
+                    return (Color) field.get(null);
+                }
+            } catch (final NoSuchFieldException | IllegalAccessException ignored) {}
+            throw new IllegalArgumentException(String.format("Invalid color: %s", value));
+        });
+    }
+
+    private static Border parseBorder(final String value) {
+        final String[] tokens = value.trim().split("\\s+");
+        switch (tokens[0]) {
+            case "empty": {
+                final int[] n = parseInts(tokens, 1, 4);
+                return BorderFactory.createEmptyBorder(n[0], n[1], n[2], n[3]);
+            }
+            case "line": {
+                if (tokens.length != 2 && tokens.length != 3) {
+                    throw new IllegalArgumentException(String.format("Invalid line border: %s", value));
+                }
+                final int thickness = tokens.length == 3 ? Integer.parseInt(tokens[2]) : 1;
+                return BorderFactory.createLineBorder(parseColor(tokens[1]), thickness);
+            }
+            case "matte": {
+                if (tokens.length != 6) {
+                    throw new IllegalArgumentException(String.format("Invalid matte border: %s", value));
+                }
+                final int[] n = parseInts(tokens, 1, 4);
+                return BorderFactory.createMatteBorder(n[0], n[1], n[2], n[3], parseColor(tokens[5]));
+            }
+            case "etched":
+                return BorderFactory.createEtchedBorder();
+            case "raised-bevel":
+                return BorderFactory.createRaisedBevelBorder();
+            case "lowered-bevel":
+                return BorderFactory.createLoweredBevelBorder();
+            default:
+                throw new IllegalArgumentException(String.format("Invalid border: %s", value));
+        }
+    }
+
+    private static int[] parseInts(final String[] tokens, final int offset, final int count) {
+        if (tokens.length < offset + count) {
+            throw new IllegalArgumentException(String.format("Expected %d numbers: %s", count, String.join(" ", tokens)));
+        }
+        final int[] ints = new int[count];
+        for (int i = 0; i < count; i++) {
+            ints[i] = Integer.parseInt(tokens[offset + i]);
+        }
+        return ints;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T intern(final String kind, final String spec, final Supplier<T> factory) {
+        final String key = kind + spec;
+        final Object existing = interned.get(key);
+        if (existing != null) {
+            return (T) existing;
+        }
+        final T value = factory.get();
+        final Object previous = interned.putIfAbsent(key, value);
+        return previous != null ? (T) previous : value;
+    }
+}
@@ -1,6 +1,8 @@
 package com.adashrod.swingoutxml.xml;
 
+import com.adashrod.swingoutxml.jfr.TemplateLoadEvent;
 import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -21,6 +23,43 @@ public class XmlLoader {
      * @throws SAXException error parsing the file
      */
     public Document load(final String filename) throws IOException, SAXException {
+        final TemplateLoadEvent event = new TemplateLoadEvent();
+        event.begin();
+        final Document document = parse(open(filename));
+        event.end();
+        if (event.shouldCommit()) {
+            event.setTemplate(filename);
+            event.commit();
+        }
+        return document;
+    }
+
+    /**
+     * Locates the specified file, the first half of {@link XmlLoader#load(String)}. For files in JARs, the returned
+     * source has an open stream; for files on the file system, it only has the location, and the file is opened when
+     * it's parsed.
+     * @param filename XML file to locate
+     * @return a source for the file
+     */
+    public InputSource open(final String filename) {
+        final InputStream inputStream = getClass().getResourceAsStream(filename);
+        if (inputStream != null) {
+            // for files found in JARs
+            return new InputSource(inputStream);
+        } else {
+            // for files directly on the file system
+            return new InputSource(new File(filename).toURI().toASCIIString());
+        }
+    }
+
+    /**
+     * Parses the source as an XML document, the second half of {@link XmlLoader#load(String)}
+     * @param source a source from {@link XmlLoader#open(String)}
+     * @return the parsed XML doc
+     * @throws IOException error reading the file
+     * @throws SAXException error parsing the file
+     */
+    public Document parse(final InputSource source) throws IOException, SAXException {
         final DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         final DocumentBuilder builder;
@@ -30,13 +69,6 @@ public class XmlLoader {
             pce.printStackTrace();
             return null;
         }
-        final InputStream inputStream = getClass().getResourceAsStream(filename);
-        if (inputStream != null) {
-            // for files found in JARs
-            return builder.parse(inputStream);
-        } else {
-            // for files directly on the file system
-            return builder.parse(new File(filename));
-        }
+        return builder.parse(source);
     }
 }